@@ -0,0 +1,111 @@
+package com.approval.common.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 本地缓存失效通知
+ * <p>
+ * 在事务提交后清理本节点缓存；开启 approval.cache.redis-invalidation 后
+ * 同时通过 Redis 频道广播，其它节点收到后清理各自的缓存。
+ */
+@Slf4j
+@Component
+public class CacheInvalidationBus {
+
+    public static final String CHANNEL = "approval:cache:invalidate";
+
+    private static final String KEY_SEPARATOR = "|";
+
+    private final Map<String, List<Consumer<String>>> listeners = new ConcurrentHashMap<>();
+
+    private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    private final boolean redisEnabled;
+
+    public CacheInvalidationBus(ObjectProvider<StringRedisTemplate> redisTemplateProvider,
+            @Value("${approval.cache.redis-invalidation:false}") boolean redisEnabled) {
+        this.redisTemplateProvider = redisTemplateProvider;
+        this.redisEnabled = redisEnabled;
+    }
+
+    /**
+     * 注册缓存失效监听，监听参数为失效的键（null 表示整体失效）
+     */
+    public void register(String cacheName, Consumer<String> listener) {
+        listeners.computeIfAbsent(cacheName, name -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /**
+     * 整体失效
+     */
+    public void invalidate(String cacheName) {
+        invalidate(cacheName, null);
+    }
+
+    /**
+     * 按键失效，存在事务时延迟到提交之后执行，避免其它线程把未提交前的旧数据重新载入缓存
+     */
+    public void invalidate(String cacheName, String key) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doInvalidate(cacheName, key);
+                }
+            });
+            return;
+        }
+        doInvalidate(cacheName, key);
+    }
+
+    /**
+     * 处理其它节点广播的失效消息
+     */
+    public void onMessage(String message) {
+        if (message == null || message.isEmpty()) {
+            return;
+        }
+        int index = message.indexOf(KEY_SEPARATOR);
+        String cacheName = index < 0 ? message : message.substring(0, index);
+        String key = index < 0 ? null : message.substring(index + 1);
+        notifyLocal(cacheName, key);
+    }
+
+    private void doInvalidate(String cacheName, String key) {
+        notifyLocal(cacheName, key);
+        if (!redisEnabled) {
+            return;
+        }
+        StringRedisTemplate redisTemplate = redisTemplateProvider.getIfAvailable();
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(CHANNEL, key == null ? cacheName : cacheName + KEY_SEPARATOR + key);
+        } catch (Exception e) {
+            log.warn("广播缓存失效消息失败：{}", cacheName, e);
+        }
+    }
+
+    private void notifyLocal(String cacheName, String key) {
+        List<Consumer<String>> cacheListeners = listeners.get(cacheName);
+        if (cacheListeners == null) {
+            return;
+        }
+        for (Consumer<String> listener : cacheListeners) {
+            listener.accept(key);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.approval.common.cache;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 本地缓存（有容量上限、按条目过期）
+ * <p>
+ * 超过容量时先清理已过期条目，仍不足再淘汰一部分旧条目，适合令牌、会话等热点小对象。
+ */
+public class LocalCache<K, V> {
+
+    private final ConcurrentHashMap<K, Entry<V>> store = new ConcurrentHashMap<>();
+
+    private final int maxSize;
+
+    private final long ttlMillis;
+
+    public LocalCache(int maxSize, long ttlMillis) {
+        if (maxSize <= 0 || ttlMillis <= 0) {
+            throw new IllegalArgumentException("maxSize and ttlMillis must be positive");
+        }
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * 获取缓存值，不存在或已过期返回 null
+     */
+    public V get(K key) {
+        Entry<V> entry = store.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            store.remove(key, entry);
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * 获取缓存值，未命中时调用 loader 加载（loader 返回 null 不缓存）
+     */
+    public V get(K key, Function<K, V> loader) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        value = loader.apply(key);
+        if (value != null) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * 按默认有效期写入
+     */
+    public void put(K key, V value) {
+        put(key, value, System.currentTimeMillis() + ttlMillis);
+    }
+
+    /**
+     * 写入并指定过期时间点，不会超过默认有效期
+     */
+    public void put(K key, V value, long expireAtMillis) {
+        long now = System.currentTimeMillis();
+        long expireAt = Math.min(expireAtMillis, now + ttlMillis);
+        if (expireAt <= now) {
+            return;
+        }
+        if (store.size() >= maxSize) {
+            evict(now);
+        }
+        store.put(key, new Entry<>(value, expireAt));
+    }
+
+    public void remove(K key) {
+        store.remove(key);
+    }
+
+    public void clear() {
+        store.clear();
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    private void evict(long now) {
+        store.entrySet().removeIf(e -> e.getValue().isExpired(now));
+        int overflow = store.size() - maxSize + Math.max(1, maxSize / 10);
+        Iterator<Map.Entry<K, Entry<V>>> iterator = store.entrySet().iterator();
+        while (overflow > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            overflow--;
+        }
+    }
+
+    private static final class Entry<V> {
+
+        private final V value;
+
+        private final long expireAt;
+
+        private Entry(V value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expireAt;
+        }
+    }
+}
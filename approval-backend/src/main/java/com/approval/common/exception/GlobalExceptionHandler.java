@@ -2,6 +2,7 @@ package com.approval.common.exception;
 
 import com.approval.common.result.Result;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
@@ -21,6 +22,15 @@ public class GlobalExceptionHandler {
         return Result.fail(e.getCode(), e.getMessage());
     }
 
+    /**
+     * 加锁失败（CannotAcquireLockException、死锁回滚等）：并发修改同一数据，按冲突返回
+     */
+    @ExceptionHandler(PessimisticLockingFailureException.class)
+    public Result<?> handleLockFailure(PessimisticLockingFailureException e) {
+        log.warn("加锁失败：{}", e.getMessage());
+        return Result.fail(409, "数据正在被其他操作修改，请刷新后重试");
+    }
+
     /**
      * 其他异常
      */
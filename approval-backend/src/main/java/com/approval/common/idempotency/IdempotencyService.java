@@ -0,0 +1,262 @@
+package com.approval.common.idempotency;
+
+import com.approval.common.cache.LocalCache;
+import com.approval.common.exception.BusinessException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 幂等请求处理
+ * <p>
+ * 客户端通过 Idempotency-Key 请求头标识一次业务操作，按 (用户, 操作, Key) 记录首次成功的结果，
+ * 有效期内的重复请求直接返回该结果；同一 Key 的并发请求等待首个请求完成，不会重复执行。
+ * 执行失败不记录结果，客户端可使用同一 Key 重试。
+ * 开启 approval.idempotency.store=redis 后结果同时写入 Redis，多节点间共享。
+ */
+@Slf4j
+@Component
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private static final String REDIS_KEY_PREFIX = "approval:idem:";
+
+    private static final String PENDING_PREFIX = "PENDING:";
+
+    private static final String RESULT_PREFIX = "R:";
+
+    private static final long POLL_INTERVAL_MILLIS = 50;
+
+    /** 仍由本请求持有时才续期 */
+    private static final DefaultRedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) "
+                    + "else return 0 end", Long.class);
+
+    /** 仍由本请求持有时才删除，避免误删其它请求的占位或结果 */
+    private static final DefaultRedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) "
+                    + "else return 0 end", Long.class);
+
+    private final LocalCache<String, Holder> results;
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    private final ObjectMapper objectMapper;
+
+    private final boolean redisStore;
+
+    private final long ttlMillis;
+
+    private final long waitTimeoutMillis;
+
+    private final ScheduledExecutorService leaseRenewer;
+
+    public IdempotencyService(ObjectProvider<StringRedisTemplate> redisTemplateProvider, ObjectMapper objectMapper,
+            @Value("${approval.idempotency.store:local}") String store,
+            @Value("${approval.idempotency.cache-size:10000}") int cacheSize,
+            @Value("${approval.idempotency.ttl:600000}") long ttlMillis,
+            @Value("${approval.idempotency.wait-timeout:10000}") long waitTimeoutMillis) {
+        this.redisTemplateProvider = redisTemplateProvider;
+        this.objectMapper = objectMapper;
+        this.redisStore = "redis".equalsIgnoreCase(store);
+        this.ttlMillis = ttlMillis;
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        this.results = new LocalCache<>(cacheSize, ttlMillis);
+        this.leaseRenewer = redisStore ? Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "idempotency-lease");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (leaseRenewer != null) {
+            leaseRenewer.shutdownNow();
+        }
+    }
+
+    /**
+     * 幂等执行：未携带 Key 时直接执行
+     *
+     * @param userId     当前用户
+     * @param scope      操作标识，如 application:leave
+     * @param key        客户端提供的 Idempotency-Key
+     * @param resultType 结果类型（Redis 存储时用于反序列化，无返回值使用 Void.class）
+     * @param action     业务操作
+     */
+    public <T> T execute(Long userId, String scope, String key, Class<T> resultType, Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new BusinessException(400, HEADER + " 长度不能超过 " + MAX_KEY_LENGTH);
+        }
+        String cacheKey = userId + ":" + scope + ":" + key;
+
+        Holder cached = results.get(cacheKey);
+        if (cached != null) {
+            return resultType.cast(cached.value);
+        }
+
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(cacheKey, future);
+        if (running != null) {
+            return resultType.cast(await(running));
+        }
+
+        try {
+            T result = redisStore
+                    ? executeWithRedis(cacheKey, resultType, action)
+                    : action.get();
+            results.put(cacheKey, new Holder(result));
+            future.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(cacheKey, future);
+        }
+    }
+
+    /**
+     * 等待本节点上同一 Key 的首个请求完成，首个请求失败时抛出相同异常
+     */
+    private Object await(CompletableFuture<Object> running) {
+        try {
+            return running.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(409, "相同请求正在处理中，请稍后重试");
+        } catch (TimeoutException e) {
+            throw new BusinessException(409, "相同请求正在处理中，请稍后重试");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * 通过 Redis SET NX 占位：占位成功的节点执行并写回结果，其它节点轮询等待结果，
+     * 各自等到 wait-timeout 后返回 409。
+     * 占位租期为 wait-timeout，执行期间每隔三分之一租期续期一次，执行再久也不会被其它节点重复执行；
+     * 执行节点宕机时停止续期，占位在一个租期内过期，重试可重新执行。写回结果时延长到完整的重放有效期。
+     */
+    private <T> T executeWithRedis(String cacheKey, Class<T> resultType, Supplier<T> action) {
+        StringRedisTemplate redisTemplate = redisTemplateProvider.getIfAvailable();
+        if (redisTemplate == null) {
+            throw new BusinessException("未配置 Redis，无法处理幂等请求");
+        }
+        String redisKey = REDIS_KEY_PREFIX + cacheKey;
+        Duration ttl = Duration.ofMillis(ttlMillis);
+        long leaseMillis = Math.max(Math.min(waitTimeoutMillis, ttlMillis), POLL_INTERVAL_MILLIS * 3);
+        String owner = PENDING_PREFIX + UUID.randomUUID();
+        long deadline = System.currentTimeMillis() + waitTimeoutMillis;
+
+        while (!Boolean.TRUE.equals(
+                redisTemplate.opsForValue().setIfAbsent(redisKey, owner, Duration.ofMillis(leaseMillis)))) {
+            String stored = redisTemplate.opsForValue().get(redisKey);
+            if (stored != null && stored.startsWith(RESULT_PREFIX)) {
+                return decode(stored.substring(RESULT_PREFIX.length()), resultType);
+            }
+            // 占位被删除（首个请求失败）或已过期时重新竞争执行权
+            if (stored != null && System.currentTimeMillis() >= deadline) {
+                throw new BusinessException(409, "相同请求正在处理中，请稍后重试");
+            }
+            sleep();
+        }
+
+        T result;
+        ScheduledFuture<?> renewal = leaseRenewer.scheduleAtFixedRate(
+                () -> renewLease(redisTemplate, redisKey, owner, leaseMillis),
+                leaseMillis / 3, leaseMillis / 3, TimeUnit.MILLISECONDS);
+        try {
+            result = action.get();
+        } catch (RuntimeException e) {
+            renewal.cancel(false);
+            release(redisTemplate, redisKey, owner);
+            throw e;
+        }
+        renewal.cancel(false);
+        try {
+            redisTemplate.opsForValue().set(redisKey, RESULT_PREFIX + objectMapper.writeValueAsString(result), ttl);
+        } catch (JsonProcessingException e) {
+            log.warn("幂等结果序列化失败: {}", cacheKey, e);
+            release(redisTemplate, redisKey, owner);
+        }
+        return result;
+    }
+
+    private void renewLease(StringRedisTemplate redisTemplate, String redisKey, String owner, long leaseMillis) {
+        try {
+            Long renewed = redisTemplate.execute(RENEW_SCRIPT, Collections.singletonList(redisKey), owner,
+                    String.valueOf(leaseMillis));
+            if (renewed == null || renewed == 0) {
+                log.warn("幂等请求占位已丢失: {}", redisKey);
+            }
+        } catch (RuntimeException e) {
+            // 单次续期失败不影响执行，下一周期重试
+            log.warn("幂等请求占位续期失败: {}", redisKey, e);
+        }
+    }
+
+    private void release(StringRedisTemplate redisTemplate, String redisKey, String owner) {
+        redisTemplate.execute(RELEASE_SCRIPT, Collections.singletonList(redisKey), owner);
+    }
+
+    private <T> T decode(String json, Class<T> resultType) {
+        try {
+            return objectMapper.readValue(json, resultType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("幂等结果解析失败", e);
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(409, "相同请求正在处理中，请稍后重试");
+        }
+    }
+
+    /**
+     * 结果包装（允许无返回值的操作也被记录）
+     */
+    private static final class Holder {
+
+        private final Object value;
+
+        private Holder(Object value) {
+            this.value = value;
+        }
+    }
+}
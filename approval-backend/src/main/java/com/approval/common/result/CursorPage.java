@@ -0,0 +1,55 @@
+package com.approval.common.result;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 游标分页结果（无总数，适合滚动加载）
+ */
+@Data
+public class CursorPage<T> implements Serializable {
+
+    private List<T> records = Collections.emptyList();
+
+    /**
+     * 下一页游标，没有更多数据时为 null
+     */
+    private String nextCursor;
+
+    private Boolean hasMore = false;
+
+    private Integer size;
+
+    /**
+     * 由多查一条的结果构建分页：超出 size 的部分只用于判断是否还有下一页
+     */
+    public static <T> CursorPage<T> of(List<T> fetched, int size, Function<T, String> cursorOf) {
+        CursorPage<T> page = new CursorPage<>();
+        page.setSize(size);
+        boolean hasMore = fetched.size() > size;
+        List<T> records = hasMore ? new ArrayList<>(fetched.subList(0, size)) : fetched;
+        page.setRecords(records);
+        page.setHasMore(hasMore);
+        if (hasMore) {
+            page.setNextCursor(cursorOf.apply(records.get(records.size() - 1)));
+        }
+        return page;
+    }
+
+    /**
+     * 保留游标信息，替换为转换后的记录（如实体转VO）
+     */
+    public <R> CursorPage<R> withRecords(List<R> converted) {
+        CursorPage<R> page = new CursorPage<>();
+        page.setRecords(converted);
+        page.setNextCursor(nextCursor);
+        page.setHasMore(hasMore);
+        page.setSize(size);
+        return page;
+    }
+}
@@ -0,0 +1,34 @@
+package com.approval.common.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.security.Principal;
+
+/**
+ * 当前登录用户（由 JWT 过滤器放入 SecurityContext）
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginUser implements Principal, Serializable {
+
+    private Long userId;
+
+    private String username;
+
+    private Long deptId;
+
+    private Long postId;
+
+    private Integer status; // 0=禁用 1=启用
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
@@ -1,38 +1,68 @@
 package com.approval.common.utils;
 
+import com.approval.common.cache.LocalCache;
+import com.approval.common.security.LoginUser;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 
 /**
  * JWT 工具类
+ * <p>
+ * 签名密钥与解析器只构建一次；已验签的 Token 按摘要缓存，
+ * 同一 Token 的重复请求不再重复做 HMAC 校验和 JSON 解码。
  */
 @Component
 public class JwtUtils {
 
+    private static final String CLAIM_USER_ID = "uid";
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    @Value("${jwt.cache-size:10000}")
+    private Integer cacheSize;
+
+    @Value("${jwt.cache-ttl:600000}")
+    private Long cacheTtl;
+
+    private SecretKey key;
+
+    private JwtParser parser;
+
+    private LocalCache<String, Claims> verifiedCache;
+
+    @PostConstruct
+    public void init() {
+        key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser().verifyWith(key).build();
+        verifiedCache = new LocalCache<>(cacheSize, cacheTtl);
+    }
+
     /**
-     * 生成 Token
+     * 生成 Token（只携带用户ID声明，部门、岗位等每次请求从登录用户缓存取得）
      */
-    public String generateToken(String username) {
+    public String generateToken(LoginUser loginUser) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration);
 
-        SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-
         return Jwts.builder()
-                .subject(username)
+                .subject(loginUser.getUsername())
+                .claim(CLAIM_USER_ID, loginUser.getUserId())
                 .issuedAt(now)
                 .expiration(expiryDate)
                 .signWith(key)
@@ -51,23 +81,59 @@ public class JwtUtils {
      * 验证 Token
      */
     public boolean validateToken(String token) {
+        return parseToken(token) != null;
+    }
+
+    /**
+     * 验证并解析 Token，无效或已过期返回 null
+     */
+    public Claims parseToken(String token) {
         try {
-            getClaimsFromToken(token);
-            return true;
+            return getClaimsFromToken(token);
         } catch (Exception e) {
-            return false;
+            return null;
         }
     }
 
     /**
-     * 解析 Token
+     * 从声明中获取用户ID，旧版 Token 未携带时返回 null
+     * <p>
+     * 声明只用于定位用户，状态、部门、岗位以用户当前信息为准。
+     */
+    public Long getUserId(Claims claims) {
+        return getLongClaim(claims, CLAIM_USER_ID);
+    }
+
+    private Long getLongClaim(Claims claims, String name) {
+        Object value = claims.get(name);
+        return value instanceof Number number ? number.longValue() : null;
+    }
+
+    /**
+     * 解析 Token（优先命中已验签缓存）
      */
     private Claims getClaimsFromToken(String token) {
-        SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        String digest = digest(token);
+        Claims cached = verifiedCache.get(digest);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        long expireAt = claims.getExpiration() != null
+                ? claims.getExpiration().getTime()
+                : System.currentTimeMillis() + cacheTtl;
+        verifiedCache.put(digest, claims, expireAt);
+        return claims;
+    }
+
+    private String digest(String token) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] hash = md.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
@@ -1,6 +1,9 @@
 package com.approval.config;
 
+import com.approval.common.security.LoginUser;
 import com.approval.common.utils.JwtUtils;
+import com.approval.module.auth.cache.LoginUserCache;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,27 +18,36 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.Objects;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationTokenFilter extends OncePerRequestFilter {
 
     private final JwtUtils jwtUtils;
+    private final LoginUserCache loginUserCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         String token = getTokenFromRequest(request);
 
-        if (StringUtils.hasText(token) && jwtUtils.validateToken(token)) {
-            String username = jwtUtils.getUsernameFromToken(token);
-
-            // 简单实现：创建认证对象（不查询数据库加载详细权限）
-            // 如果需要详细权限控制，应该注入 UserDetailsService 并加载 UserDetails
-            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                    username, null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")));
-
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+        Claims claims = StringUtils.hasText(token) ? jwtUtils.parseToken(token) : null;
+        if (claims != null) {
+            // Token 声明只作为查找键，用户状态、部门、岗位取自短时用户缓存；旧版 Token 按用户名查找
+            Long userId = jwtUtils.getUserId(claims);
+            LoginUser loginUser = userId != null
+                    ? loginUserCache.getByUserId(userId)
+                    : loginUserCache.getByUsername(claims.getSubject());
+
+            // 已删除、已停用或已改名的用户，其已签发的 Token 不再有效
+            if (loginUser != null && !Integer.valueOf(0).equals(loginUser.getStatus())
+                    && Objects.equals(loginUser.getUsername(), claims.getSubject())) {
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                        loginUser, null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")));
+
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
         }
 
         filterChain.doFilter(request, response);
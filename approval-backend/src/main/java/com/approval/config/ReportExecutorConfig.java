@@ -0,0 +1,32 @@
+package com.approval.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 报表分段查询线程池
+ * <p>
+ * 线程数与队列均有上限，队列满时拒绝提交（对应分段按失败返回），避免报表请求堆积占满数据库连接。
+ */
+@Configuration
+public class ReportExecutorConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor reportExecutor(
+            @Value("${approval.report.pool-size:4}") int poolSize,
+            @Value("${approval.report.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("report-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+}
@@ -0,0 +1,73 @@
+package com.approval.module.approval.cache;
+
+import com.approval.common.cache.CacheInvalidationBus;
+import com.approval.common.cache.LocalCache;
+import com.approval.module.approval.vo.ApplicationSummaryVo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 申请人概览统计缓存
+ * <p>
+ * 只缓存计数、合计等聚合结果（不含姓名、部门等用户信息），按申请人失效：
+ * 提交、审批、撤回申请后在事务提交时清除对应申请人的条目。
+ */
+@Component
+public class ApplicantSummaryCache {
+
+    public static final String CACHE_NAME = "applicant-summary";
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    private final LocalCache<Long, ApplicationSummaryVo> cache;
+
+    /**
+     * 失效代数：载入期间发生过失效的结果不写入缓存，避免旧值覆盖
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    public ApplicantSummaryCache(CacheInvalidationBus cacheInvalidationBus,
+            @Value("${approval.cache.summary-size:5000}") int cacheSize,
+            @Value("${approval.cache.summary-ttl:300000}") long cacheTtl) {
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.cache = new LocalCache<>(cacheSize, cacheTtl);
+        cacheInvalidationBus.register(CACHE_NAME, this::onInvalidate);
+    }
+
+    /**
+     * 获取申请人的聚合统计，未命中时调用 loader 计算
+     */
+    public ApplicationSummaryVo get(Long applicantId, Supplier<ApplicationSummaryVo> loader) {
+        ApplicationSummaryVo cached = cache.get(applicantId);
+        if (cached != null) {
+            return cached;
+        }
+        long loadGeneration = generation.get();
+        ApplicationSummaryVo loaded = loader.get();
+        if (loaded != null && generation.get() == loadGeneration) {
+            cache.put(applicantId, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * 申请人的申请发生变化后调用（事务提交后生效，并通知其它节点）
+     */
+    public void evict(Long applicantId) {
+        if (applicantId != null) {
+            cacheInvalidationBus.invalidate(CACHE_NAME, String.valueOf(applicantId));
+        }
+    }
+
+    private void onInvalidate(String key) {
+        generation.incrementAndGet();
+        if (key == null) {
+            cache.clear();
+        } else {
+            cache.remove(Long.valueOf(key));
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.approval.module.approval.cache;
+
+import com.approval.module.approval.entity.Application;
+import com.approval.module.approval.mapper.ApplicationMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 申请单号/标题子串检索索引（二元组倒排，内存）
+ * <p>
+ * 默认开启（approval.search.ngram-enabled），启动完成时后台按申请ID分批构建；
+ * 新申请在事务提交后写入本节点，查询时按间隔补读新增申请（兼顾其它节点的提交）。
+ * 命中过多时只返回最新的 max-results 条；索引关闭、尚未就绪或关键字少于两个字符时返回 null，
+ * 由调用方处理（单字符关键字只按单号前缀匹配）。
+ */
+@Slf4j
+@Component
+public class ApplicationSearchIndex {
+
+    /**
+     * 补读时回看的申请ID数量，覆盖并发事务乱序提交的情况
+     */
+    private static final long REFRESH_OVERLAP = 100;
+
+    private final ApplicationMapper applicationMapper;
+
+    private final boolean enabled;
+
+    private final int batchSize;
+
+    private final int maxResults;
+
+    private final long refreshInterval;
+
+    private final Map<String, Postings> postings = new ConcurrentHashMap<>();
+
+    private final Map<Long, String> documents = new ConcurrentHashMap<>();
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile boolean ready;
+
+    private volatile long maxLoadedId;
+
+    private volatile long lastRefreshTime;
+
+    public ApplicationSearchIndex(ApplicationMapper applicationMapper,
+            @Value("${approval.search.ngram-enabled:true}") boolean enabled,
+            @Value("${approval.search.batch-size:5000}") int batchSize,
+            @Value("${approval.search.max-results:1000}") int maxResults,
+            @Value("${approval.search.refresh-interval:5000}") long refreshInterval) {
+        this.applicationMapper = applicationMapper;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxResults = maxResults;
+        this.refreshInterval = refreshInterval;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        Thread builder = new Thread(this::buildAll, "app-search-index");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    /**
+     * 新申请写入索引（存在事务时在提交后生效）
+     */
+    public void add(Application app) {
+        if (!enabled || app == null || app.getAppId() == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    index(app.getAppId(), app.getAppNo(), app.getTitle());
+                }
+            });
+        } else {
+            index(app.getAppId(), app.getAppNo(), app.getTitle());
+        }
+    }
+
+    /**
+     * 检索单号或标题包含关键字的申请ID（新申请在前，最多 max-results 条）
+     *
+     * @return 命中的申请ID；索引不可用或关键字少于两个字符时返回 null
+     */
+    public List<Long> search(String keyword) {
+        if (!enabled || !ready || keyword == null) {
+            return null;
+        }
+        String text = normalize(keyword);
+        if (text.length() < 2) {
+            return null;
+        }
+        refreshIfStale();
+
+        List<Postings> lists = new ArrayList<>();
+        for (String gram : grams(text)) {
+            Postings list = postings.get(gram);
+            if (list == null) {
+                return new ArrayList<>();
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(Postings::size));
+
+        // 在最短列表的快照上原地倒序遍历，不复制
+        Postings.View candidates = lists.get(0).view();
+        List<Long> result = new ArrayList<>();
+        for (int i = candidates.size() - 1; i >= 0 && result.size() < maxResults; i--) {
+            long appId = candidates.ids()[i];
+            if (!containsAll(lists, appId)) {
+                continue;
+            }
+            // 二元组全部命中不代表连续出现，按原文确认
+            String document = documents.get(appId);
+            if (document == null || !document.contains(text)) {
+                continue;
+            }
+            result.add(appId);
+        }
+        return result;
+    }
+
+    private void buildAll() {
+        long start = System.currentTimeMillis();
+        try {
+            loadAfter(0L);
+            ready = true;
+            log.info("申请检索索引构建完成，共 {} 条，耗时 {} ms", documents.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("申请检索索引构建失败，检索回退到数据库查询", e);
+        }
+    }
+
+    private void refreshIfStale() {
+        long now = System.currentTimeMillis();
+        if (now - lastRefreshTime < refreshInterval || !refreshLock.tryLock()) {
+            return;
+        }
+        try {
+            loadAfter(Math.max(0L, maxLoadedId - REFRESH_OVERLAP));
+        } catch (Exception e) {
+            log.warn("申请检索索引补读失败: {}", e.getMessage());
+        } finally {
+            lastRefreshTime = now;
+            refreshLock.unlock();
+        }
+    }
+
+    private void loadAfter(long afterId) {
+        long cursor = afterId;
+        while (true) {
+            List<Application> batch = applicationMapper.selectSearchDocs(cursor, batchSize);
+            for (Application app : batch) {
+                index(app.getAppId(), app.getAppNo(), app.getTitle());
+                cursor = app.getAppId();
+            }
+            maxLoadedId = Math.max(maxLoadedId, cursor);
+            if (batch.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private void index(Long appId, String appNo, String title) {
+        String document = normalize((appNo != null ? appNo : "") + "\n" + (title != null ? title : ""));
+        if (documents.putIfAbsent(appId, document) != null) {
+            return;
+        }
+        for (String gram : grams(document)) {
+            postings.computeIfAbsent(gram, key -> new Postings()).add(appId);
+        }
+    }
+
+    private boolean containsAll(List<Postings> lists, long appId) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(appId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String normalize(String text) {
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 2 <= text.length(); i++) {
+            grams.add(text.substring(i, i + 2));
+        }
+        return grams;
+    }
+
+    /**
+     * 有序申请ID列表（申请ID自增，绝大多数写入为追加）
+     * <p>
+     * 已发布的 [0, size) 区间不再原地修改：追加只写 size 之后的位置，乱序插入和扩容都换新数组，
+     * 读取方拿到 (数组, 长度) 后无需加锁即可遍历。
+     */
+    private static final class Postings {
+
+        private long[] ids = new long[4];
+
+        private int size;
+
+        synchronized void add(long id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                int pos = Arrays.binarySearch(ids, 0, size, id);
+                if (pos >= 0) {
+                    return;
+                }
+                int insertAt = -pos - 1;
+                long[] copy = new long[size == ids.length ? size * 2 : ids.length];
+                System.arraycopy(ids, 0, copy, 0, insertAt);
+                copy[insertAt] = id;
+                System.arraycopy(ids, insertAt, copy, insertAt + 1, size - insertAt);
+                ids = copy;
+                size++;
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        synchronized boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized View view() {
+            return new View(ids, size);
+        }
+
+        private record View(long[] ids, int size) {
+        }
+    }
+}
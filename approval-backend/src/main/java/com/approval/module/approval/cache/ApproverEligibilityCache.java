@@ -0,0 +1,169 @@
+package com.approval.module.approval.cache;
+
+import com.approval.common.cache.CacheInvalidationBus;
+import com.approval.common.cache.LocalCache;
+import com.approval.module.approval.vo.ApproverOptionVo;
+import com.approval.module.system.cache.DeptTreeCache;
+import com.approval.module.system.cache.PostPermissionCache;
+import com.approval.module.system.entity.Post;
+import com.approval.module.system.entity.User;
+import com.approval.module.system.mapper.PostMapper;
+import com.approval.module.system.mapper.UserMapper;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 部门可选审批人缓存
+ * <p>
+ * 按部门缓存启用状态且岗位拥有审批权限的人员（不可变列表）。用户调整部门、岗位、状态后
+ * 按部门失效；岗位权限或部门信息变化时随岗位权限缓存、部门树缓存的失效整体清空。
+ */
+@Component
+public class ApproverEligibilityCache {
+
+    public static final String CACHE_NAME = "approver-eligibility";
+
+    private static final String APPROVAL_PERMISSION_CODE = "APPROVAL_REVIEW";
+
+    private final UserMapper userMapper;
+
+    private final PostMapper postMapper;
+
+    private final PostPermissionCache postPermissionCache;
+
+    private final DeptTreeCache deptTreeCache;
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    private final LocalCache<Long, DeptApprovers> cache;
+
+    /**
+     * 失效代数：载入期间发生过失效的结果不写入缓存，避免旧值覆盖
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    public ApproverEligibilityCache(UserMapper userMapper, PostMapper postMapper,
+            PostPermissionCache postPermissionCache, DeptTreeCache deptTreeCache,
+            CacheInvalidationBus cacheInvalidationBus,
+            @Value("${approval.cache.approver-size:1000}") int cacheSize,
+            @Value("${approval.cache.approver-ttl:600000}") long cacheTtl) {
+        this.userMapper = userMapper;
+        this.postMapper = postMapper;
+        this.postPermissionCache = postPermissionCache;
+        this.deptTreeCache = deptTreeCache;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.cache = new LocalCache<>(cacheSize, cacheTtl);
+        cacheInvalidationBus.register(CACHE_NAME, this::onInvalidate);
+        cacheInvalidationBus.register(PostPermissionCache.CACHE_NAME, key -> onInvalidate(null));
+        cacheInvalidationBus.register(DeptTreeCache.CACHE_NAME, key -> onInvalidate(null));
+    }
+
+    /**
+     * 部门可选审批人（只读）
+     */
+    public List<ApproverOptionVo> getApprovers(Long deptId) {
+        return deptId == null ? Collections.emptyList() : current(deptId).options;
+    }
+
+    /**
+     * 查找部门内可选的审批人，不在可选范围内返回 null
+     */
+    public ApproverOptionVo findApprover(Long deptId, Long userId) {
+        if (deptId == null || userId == null) {
+            return null;
+        }
+        return current(deptId).byUserId.get(userId);
+    }
+
+    /**
+     * 部门人员变化后调用（事务提交后生效，并通知其它节点）
+     */
+    public void evict(Long... deptIds) {
+        for (Long deptId : deptIds) {
+            if (deptId != null) {
+                cacheInvalidationBus.invalidate(CACHE_NAME, String.valueOf(deptId));
+            }
+        }
+    }
+
+    private DeptApprovers current(Long deptId) {
+        DeptApprovers cached = cache.get(deptId);
+        if (cached != null) {
+            return cached;
+        }
+        long loadGeneration = generation.get();
+        DeptApprovers loaded = load(deptId);
+        if (generation.get() == loadGeneration) {
+            cache.put(deptId, loaded);
+        }
+        return loaded;
+    }
+
+    private DeptApprovers load(Long deptId) {
+        List<User> candidates = userMapper.selectList(new LambdaQueryWrapper<User>()
+                .eq(User::getDeptId, deptId)
+                .eq(User::getStatus, 1)
+                .isNotNull(User::getPostId));
+        List<User> eligible = candidates.stream()
+                .filter(candidate -> postPermissionCache.hasPermission(candidate.getPostId(), APPROVAL_PERMISSION_CODE))
+                .collect(Collectors.toList());
+        if (eligible.isEmpty()) {
+            return new DeptApprovers(Collections.emptyMap());
+        }
+
+        List<Long> postIds = eligible.stream()
+                .map(User::getPostId)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, Post> postMap = postMapper.selectBatchIds(postIds).stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toMap(Post::getPostId, post -> post, (first, second) -> first));
+        String deptName = deptTreeCache.getDeptName(deptId);
+
+        Map<Long, ApproverOptionVo> byUserId = new LinkedHashMap<>();
+        for (User candidate : eligible) {
+            ApproverOptionVo vo = new ApproverOptionVo();
+            vo.setUserId(candidate.getUserId());
+            vo.setRealName(candidate.getRealName());
+            vo.setDeptId(deptId);
+            vo.setDeptName(deptName);
+            Post post = postMap.get(candidate.getPostId());
+            if (post != null) {
+                vo.setPostId(post.getPostId());
+                vo.setPostName(post.getPostName());
+            }
+            byUserId.put(candidate.getUserId(), vo);
+        }
+        return new DeptApprovers(byUserId);
+    }
+
+    private void onInvalidate(String key) {
+        generation.incrementAndGet();
+        if (key == null) {
+            cache.clear();
+        } else {
+            cache.remove(Long.valueOf(key));
+        }
+    }
+
+    private static final class DeptApprovers {
+
+        private final List<ApproverOptionVo> options;
+
+        private final Map<Long, ApproverOptionVo> byUserId;
+
+        private DeptApprovers(Map<Long, ApproverOptionVo> byUserId) {
+            this.byUserId = Collections.unmodifiableMap(byUserId);
+            this.options = List.copyOf(byUserId.values());
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package com.approval.module.approval.controller;
 
+import com.approval.common.idempotency.IdempotencyService;
+import com.approval.common.result.CursorPage;
 import com.approval.common.result.Result;
-import com.approval.common.utils.JwtUtils;
+import com.approval.common.security.CurrentUser;
+import com.approval.common.security.LoginUser;
+import com.approval.module.approval.dto.BatchCreateApplicationDto;
 import com.approval.module.approval.dto.CreateLeaveDto;
 import com.approval.module.approval.dto.CreateReimburseDto;
 import com.approval.module.approval.service.IApplicationService;
@@ -9,11 +13,10 @@ import com.approval.module.approval.vo.ApproverOptionVo;
 import com.approval.module.approval.vo.ApplicationHistoryVo;
 import com.approval.module.approval.vo.ApplicationSummaryVo;
 import com.approval.module.approval.vo.ApplicationVo;
-import com.approval.module.system.entity.User;
-import com.approval.module.system.mapper.UserMapper;
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.approval.module.approval.vo.BatchItemResultVo;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -33,16 +36,18 @@ import java.util.List;
 public class ApplicationController {
 
     private final IApplicationService applicationService;
-    private final JwtUtils jwtUtils;
-    private final UserMapper userMapper;
+
+    private final IdempotencyService idempotencyService;
 
     @Operation(summary = "创建请假申请")
     @PostMapping("/leave")
     public Result<Long> createLeaveApplication(
             @Valid @RequestBody CreateLeaveDto dto,
-            @RequestHeader("Authorization") String token) {
-        Long userId = getUserIdFromToken(token);
-        Long appId = applicationService.createLeaveApplication(dto, userId);
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Parameter(hidden = true) @CurrentUser LoginUser loginUser) {
+        Long userId = loginUser.getUserId();
+        Long appId = idempotencyService.execute(userId, "application:leave", idempotencyKey, Long.class,
+                () -> applicationService.createLeaveApplication(dto, userId));
         return Result.success(appId);
     }
 
@@ -50,12 +55,24 @@ public class ApplicationController {
     @PostMapping("/reimburse")
     public Result<Long> createReimburseApplication(
             @Valid @RequestBody CreateReimburseDto dto,
-            @RequestHeader("Authorization") String token) {
-        Long userId = getUserIdFromToken(token);
-        Long appId = applicationService.createReimburseApplication(dto, userId);
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Parameter(hidden = true) @CurrentUser LoginUser loginUser) {
+        Long userId = loginUser.getUserId();
+        Long appId = idempotencyService.execute(userId, "application:reimburse", idempotencyKey, Long.class,
+                () -> applicationService.createReimburseApplication(dto, userId));
         return Result.success(appId);
     }
 
+    @Operation(summary = "批量代提交申请")
+    @PostMapping("/batch")
+    public Result<List<BatchItemResultVo>> batchCreateApplications(
+            @Valid @RequestBody BatchCreateApplicationDto dto,
+            @Parameter(hidden = true) @CurrentUser LoginUser loginUser) {
+        Long userId = loginUser.getUserId();
+        List<BatchItemResultVo> results = applicationService.batchCreateApplications(dto, userId);
+        return Result.success(results);
+    }
+
     @Operation(summary = "查询我的申请列表")
     @GetMapping("/my")
     public Result<Page<ApplicationVo>> getMyApplications(
@@ -63,12 +80,26 @@ public class ApplicationController {
             @RequestParam(defaultValue = "10") Integer pageSize,
             @RequestParam(required = false) String appType,
             @RequestParam(required = false) Integer status,
-            @RequestHeader("Authorization") String token) {
-        Long userId = getUserIdFromToken(token);
+            @Parameter(hidden = true) @CurrentUser LoginUser loginUser) {
+        Long userId = loginUser.getUserId();
         Page<ApplicationVo> page = applicationService.getMyApplications(userId, pageNum, pageSize, appType, status);
         return Result.success(page);
     }
 
+    @Operation(summary = "游标查询我的申请列表")
+    @GetMapping("/my/cursor")
+    public Result<CursorPage<ApplicationVo>> getMyApplicationsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String appType,
+            @RequestParam(required = false) Integer status,
+            @Parameter(hidden = true) @CurrentUser LoginUser loginUser) {
+        Long userId = loginUser.getUserId();
+        CursorPage<ApplicationVo> page = applicationService.getMyApplicationsByCursor(userId, cursor, size,
+                appType, status);
+        return Result.success(page);
+    }
+
     @Operation(summary = "查询审批历史")
     @GetMapping("/history")
     public Result<Page<ApplicationHistoryVo>> getMyHistoryApplications(
@@ -81,8 +112,8 @@ public class ApplicationController {
             @RequestParam(required = false) Integer leaveType,
             @RequestParam(required = false) Integer expenseType,
             @RequestParam(required = false) Integer status,
-            @RequestHeader("Authorization") String token) {
-        Long userId = getUserIdFromToken(token);
+            @Parameter(hidden = true) @CurrentUser LoginUser loginUser) {
+        Long userId = loginUser.getUserId();
         Page<ApplicationHistoryVo> page = applicationService.getMyHistoryApplications(userId, pageNum, pageSize,
             appType, startTime, endTime, approverName, leaveType, expenseType, status);
         return Result.success(page);
@@ -90,8 +121,8 @@ public class ApplicationController {
 
     @Operation(summary = "获取申请统计")
     @GetMapping("/summary")
-    public Result<ApplicationSummaryVo> getMySummary(@RequestHeader("Authorization") String token) {
-        Long userId = getUserIdFromToken(token);
+    public Result<ApplicationSummaryVo> getMySummary(@Parameter(hidden = true) @CurrentUser LoginUser loginUser) {
+        Long userId = loginUser.getUserId();
         ApplicationSummaryVo summary = applicationService.getMySummary(userId);
         return Result.success(summary);
     }
@@ -100,8 +131,8 @@ public class ApplicationController {
     @GetMapping("/approvers")
     public Result<List<ApproverOptionVo>> getDeptApprovers(
             @RequestParam(required = false) Long deptId,
-            @RequestHeader("Authorization") String token) {
-        Long userId = getUserIdFromToken(token);
+            @Parameter(hidden = true) @CurrentUser LoginUser loginUser) {
+        Long userId = loginUser.getUserId();
         List<ApproverOptionVo> approvers = applicationService.getDeptApprovers(userId, deptId);
         return Result.success(approvers);
     }
@@ -117,20 +148,9 @@ public class ApplicationController {
     @PutMapping("/withdraw/{appId}")
     public Result<Void> withdrawApplication(
             @PathVariable Long appId,
-            @RequestHeader("Authorization") String token) {
-        Long userId = getUserIdFromToken(token);
+            @Parameter(hidden = true) @CurrentUser LoginUser loginUser) {
+        Long userId = loginUser.getUserId();
         applicationService.withdrawApplication(appId, userId);
         return Result.success();
     }
-
-    /**
-     * 从Token中获取用户ID
-     */
-    private Long getUserIdFromToken(String token) {
-        String actualToken = token.replace("Bearer ", "");
-        String username = jwtUtils.getUsernameFromToken(actualToken);
-        User user = userMapper.selectOne(
-                new LambdaQueryWrapper<User>().eq(User::getUsername, username));
-        return user != null ? user.getUserId() : null;
-    }
 }
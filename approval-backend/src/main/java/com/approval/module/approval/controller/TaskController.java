@@ -1,21 +1,26 @@
 package com.approval.module.approval.controller;
 
+import com.approval.common.idempotency.IdempotencyService;
+import com.approval.common.result.CursorPage;
 import com.approval.common.result.Result;
-import com.approval.common.utils.JwtUtils;
+import com.approval.common.security.CurrentUser;
+import com.approval.common.security.LoginUser;
 import com.approval.module.approval.dto.ApproveTaskDto;
+import com.approval.module.approval.dto.BatchApproveTaskDto;
 import com.approval.module.approval.service.ITaskService;
 import com.approval.module.approval.vo.ApproverDashboardVo;
+import com.approval.module.approval.vo.BatchItemResultVo;
 import com.approval.module.approval.vo.TaskVo;
-import com.approval.module.system.entity.User;
-import com.approval.module.system.mapper.UserMapper;
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * 任务管理控制器
  */
@@ -26,16 +31,16 @@ import org.springframework.web.bind.annotation.*;
 public class TaskController {
 
     private final ITaskService taskService;
-    private final JwtUtils jwtUtils;
-    private final UserMapper userMapper;
+
+    private final IdempotencyService idempotencyService;
 
     @Operation(summary = "查询待办任务")
     @GetMapping("/todo")
     public Result<Page<TaskVo>> getTodoTasks(
             @RequestParam(defaultValue = "1") Integer pageNum,
             @RequestParam(defaultValue = "10") Integer pageSize,
-            @RequestHeader("Authorization") String token) {
-        Long userId = getUserIdFromToken(token);
+            @Parameter(hidden = true) @CurrentUser LoginUser loginUser) {
+        Long userId = loginUser.getUserId();
         Page<TaskVo> page = taskService.getTodoTasks(userId, pageNum, pageSize);
         return Result.success(page);
     }
@@ -44,42 +49,67 @@ public class TaskController {
     @PostMapping("/approve")
     public Result<Void> approveTask(
             @Valid @RequestBody ApproveTaskDto dto,
-            @RequestHeader("Authorization") String token) {
-        Long userId = getUserIdFromToken(token);
-        taskService.approveTask(dto, userId);
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Parameter(hidden = true) @CurrentUser LoginUser loginUser) {
+        Long userId = loginUser.getUserId();
+        idempotencyService.execute(userId, "task:approve", idempotencyKey, Void.class, () -> {
+            taskService.approveTask(dto, userId);
+            return null;
+        });
         return Result.success();
     }
 
+    @Operation(summary = "批量审批任务")
+    @PostMapping("/approve/batch")
+    public Result<List<BatchItemResultVo>> batchApproveTasks(
+            @Valid @RequestBody BatchApproveTaskDto dto,
+            @Parameter(hidden = true) @CurrentUser LoginUser loginUser) {
+        Long userId = loginUser.getUserId();
+        List<BatchItemResultVo> results = taskService.batchApproveTasks(dto, userId);
+        return Result.success(results);
+    }
+
     @Operation(summary = "查询已办任务")
     @GetMapping("/done")
     public Result<Page<TaskVo>> getDoneTasks(
             @RequestParam(defaultValue = "1") Integer pageNum,
             @RequestParam(defaultValue = "10") Integer pageSize,
-            @RequestHeader("Authorization") String token) {
-        Long userId = getUserIdFromToken(token);
+            @Parameter(hidden = true) @CurrentUser LoginUser loginUser) {
+        Long userId = loginUser.getUserId();
         Page<TaskVo> page = taskService.getDoneTasks(userId, pageNum, pageSize);
         return Result.success(page);
     }
 
+    @Operation(summary = "游标查询待办任务")
+    @GetMapping("/todo/cursor")
+    public Result<CursorPage<TaskVo>> getTodoTasksByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            @Parameter(hidden = true) @CurrentUser LoginUser loginUser) {
+        Long userId = loginUser.getUserId();
+        CursorPage<TaskVo> page = taskService.getTodoTasksByCursor(userId, cursor, size);
+        return Result.success(page);
+    }
+
+    @Operation(summary = "游标查询已办任务")
+    @GetMapping("/done/cursor")
+    public Result<CursorPage<TaskVo>> getDoneTasksByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            @Parameter(hidden = true) @CurrentUser LoginUser loginUser) {
+        Long userId = loginUser.getUserId();
+        CursorPage<TaskVo> page = taskService.getDoneTasksByCursor(userId, cursor, size);
+        return Result.success(page);
+    }
+
     @Operation(summary = "审批人仪表盘统计")
     @GetMapping("/dashboard")
     public Result<ApproverDashboardVo> getApproverDashboard(
             @RequestParam(required = false) Integer year,
             @RequestParam(required = false) Integer month,
-            @RequestHeader("Authorization") String token) {
-        Long userId = getUserIdFromToken(token);
+            @Parameter(hidden = true) @CurrentUser LoginUser loginUser) {
+        Long userId = loginUser.getUserId();
         ApproverDashboardVo data = taskService.getApproverDashboard(userId, year, month);
         return Result.success(data);
     }
-
-    /**
-     * 从Token中获取用户ID
-     */
-    private Long getUserIdFromToken(String token) {
-        String actualToken = token.replace("Bearer ", "");
-        String username = jwtUtils.getUsernameFromToken(actualToken);
-        User user = userMapper.selectOne(
-                new LambdaQueryWrapper<User>().eq(User::getUsername, username));
-        return user != null ? user.getUserId() : null;
-    }
 }
@@ -0,0 +1,24 @@
+package com.approval.module.approval.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 批量审批任务DTO
+ */
+@Data
+public class BatchApproveTaskDto {
+
+    @NotEmpty(message = "任务ID不能为空")
+    @Size(max = 200, message = "单次最多处理200个任务")
+    private List<Long> taskIds;
+
+    @NotNull(message = "审批动作不能为空")
+    private Integer action; // 1=同意 2=拒绝
+
+    private String comment; // 审批意见（选填，所有任务共用）
+}
@@ -0,0 +1,38 @@
+package com.approval.module.approval.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 批量代提交申请DTO
+ */
+@Data
+public class BatchCreateApplicationDto {
+
+    @NotEmpty(message = "申请列表不能为空")
+    @Size(max = 200, message = "单次最多提交200条申请")
+    @Valid
+    private List<Item> items;
+
+    @Data
+    public static class Item {
+
+        @NotNull(message = "申请人不能为空")
+        private Long applicantId;
+
+        @NotBlank(message = "申请类型不能为空")
+        private String appType; // leave=请假 reimburse=报销
+
+        @Valid
+        private CreateLeaveDto leave; // 请假申请内容（appType=leave 时必填）
+
+        @Valid
+        private CreateReimburseDto reimburse; // 报销申请内容（appType=reimburse 时必填）
+    }
+}
@@ -34,8 +34,22 @@ public class Application {
 
     private LocalDateTime submitTime;
 
+    /** 代提交人ID（为他人批量提交时记录操作人，本人提交为空） */
+    private Long proxySubmitterId;
+
     private LocalDateTime finishTime;
 
+    /** 最近一次审批（由审批操作同步维护，避免回查审批历史） */
+    private Long lastApproverId;
+
+    private String lastApproverName;
+
+    private Integer lastAction; // 1=同意 2=拒绝
+
+    private String lastComment;
+
+    private LocalDateTime lastDecisionTime;
+
     @TableLogic
     private Integer delFlag;
 
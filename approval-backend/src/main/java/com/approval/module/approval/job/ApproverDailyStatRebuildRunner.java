@@ -0,0 +1,41 @@
+package com.approval.module.approval.job;
+
+import com.approval.module.approval.mapper.ApproverDailyStatMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 审批人按天汇总重建任务
+ * <p>
+ * 开启 approval.backfill.approver-daily-stat 后在启动时从已处理任务全量重建 bpm_approver_daily_stat，
+ * 删除与重建在同一事务内完成。建议在低峰期执行，完成后关闭开关。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "approval.backfill.approver-daily-stat", havingValue = "true")
+public class ApproverDailyStatRebuildRunner implements ApplicationRunner {
+
+    private final ApproverDailyStatMapper approverDailyStatMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public ApproverDailyStatRebuildRunner(ApproverDailyStatMapper approverDailyStatMapper,
+            PlatformTransactionManager transactionManager) {
+        this.approverDailyStatMapper = approverDailyStatMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Integer rows = transactionTemplate.execute(status -> {
+            approverDailyStatMapper.deleteAll();
+            return approverDailyStatMapper.rebuildAll();
+        });
+        log.info("审批人按天汇总重建完成，共 {} 行", rows);
+    }
+}
@@ -0,0 +1,41 @@
+package com.approval.module.approval.job;
+
+import com.approval.module.approval.mapper.ApplicationMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 最近审批信息回填任务
+ * <p>
+ * 存量申请没有 last_* 冗余字段，开启 approval.backfill.last-decision 后在启动时按申请ID分批
+ * 从审批历史回填，每批一条 UPDATE，可重复执行（只处理未回填的行）。回填完成后关闭开关即可。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "approval.backfill.last-decision", havingValue = "true")
+public class LastDecisionBackfillRunner implements ApplicationRunner {
+
+    private final ApplicationMapper applicationMapper;
+
+    private final int batchSize;
+
+    public LastDecisionBackfillRunner(ApplicationMapper applicationMapper,
+            @Value("${approval.backfill.batch-size:1000}") int batchSize) {
+        this.applicationMapper = applicationMapper;
+        this.batchSize = Math.max(batchSize, 1);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long maxId = applicationMapper.selectMaxAppId();
+        long updated = 0;
+        for (long fromId = 1; fromId <= maxId; fromId += batchSize) {
+            updated += applicationMapper.backfillLastDecision(fromId, fromId + batchSize - 1);
+        }
+        log.info("最近审批信息回填完成，共更新 {} 条申请", updated);
+    }
+}
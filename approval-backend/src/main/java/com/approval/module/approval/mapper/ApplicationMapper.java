@@ -1,12 +1,115 @@
 package com.approval.module.approval.mapper;
 
 import com.approval.module.approval.entity.Application;
+import com.approval.module.approval.vo.ApplicationHistoryVo;
+import com.approval.module.approval.vo.ApplicationStatusCountVo;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 申请Mapper
  */
 @Mapper
 public interface ApplicationMapper extends BaseMapper<Application> {
+
+    /**
+     * 查询指定前缀下已使用的最大流水号（走 app_no 唯一索引的范围扫描），按数值而不是字符串比较
+     */
+    @Select("SELECT MAX(CAST(SUBSTRING(app_no, LENGTH(#{prefix}) + 1) AS UNSIGNED)) FROM bpm_application " +
+            "WHERE app_no LIKE CONCAT(#{prefix}, '%')")
+    Long selectMaxSerial(@Param("prefix") String prefix);
+
+    /**
+     * 分页查询本人审批历史：明细与申请人部门一次联表带出，最近审批信息直接读取主表冗余字段，过滤条件全部下推到 SQL
+     */
+    @Select("<script>" +
+            "SELECT a.app_id, a.app_no, a.app_type, a.title, a.status, a.current_node, a.submit_time, a.finish_time, " +
+            "u.real_name AS applicant_name, d.dept_name, " +
+            "a.last_approver_name AS approver_name, a.last_action AS action, a.last_comment AS comment, " +
+            "a.last_decision_time AS approve_time, " +
+            "l.leave_type, l.days AS leave_days, r.expense_type, r.amount AS expense_amount " +
+            "FROM bpm_application a " +
+            "LEFT JOIN sys_user u ON u.user_id = a.applicant_id AND u.del_flag = 0 " +
+            "LEFT JOIN sys_dept d ON d.dept_id = u.dept_id AND d.del_flag = 0 " +
+            "LEFT JOIN bpm_leave_application l ON l.app_id = a.app_id " +
+            "LEFT JOIN bpm_reimburse_application r ON r.app_id = a.app_id " +
+            "WHERE a.applicant_id = #{userId} AND a.del_flag = 0 " +
+            "AND a.status IN <foreach collection='statuses' item='s' open='(' separator=',' close=')'>#{s}</foreach> " +
+            "<if test='appType != null and appType != \"\"'>AND a.app_type = #{appType} </if>" +
+            "<if test='startTime != null'>AND a.submit_time &gt;= #{startTime} </if>" +
+            "<if test='endTime != null'>AND a.submit_time &lt;= #{endTime} </if>" +
+            "<if test='leaveType != null'>AND (a.app_type &lt;&gt; 'leave' OR l.leave_type = #{leaveType}) </if>" +
+            "<if test='expenseType != null'>AND (a.app_type &lt;&gt; 'reimburse' OR r.expense_type = #{expenseType}) </if>" +
+            "<if test='approverName != null and approverName != \"\"'>" +
+            "AND a.last_approver_name LIKE CONCAT('%', #{approverName}, '%') " +
+            "</if>" +
+            "ORDER BY a.submit_time DESC, a.app_id DESC" +
+            "</script>")
+    Page<ApplicationHistoryVo> selectHistoryPage(Page<ApplicationHistoryVo> page,
+            @Param("userId") Long userId,
+            @Param("statuses") List<Integer> statuses,
+            @Param("appType") String appType,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime,
+            @Param("approverName") String approverName,
+            @Param("leaveType") Integer leaveType,
+            @Param("expenseType") Integer expenseType);
+
+    /**
+     * 按申请ID顺序读取单号与标题（构建单号/标题检索索引）
+     */
+    @Select("SELECT app_id, app_no, title FROM bpm_application " +
+            "WHERE del_flag = 0 AND app_id > #{afterId} ORDER BY app_id LIMIT #{limit}")
+    List<Application> selectSearchDocs(@Param("afterId") Long afterId, @Param("limit") Integer limit);
+
+    /**
+     * 查询最大申请ID（回填任务按ID分批）
+     */
+    @Select("SELECT COALESCE(MAX(app_id), 0) FROM bpm_application")
+    Long selectMaxAppId();
+
+    /**
+     * 按申请ID区间从审批历史回填最近审批信息（仅处理尚未回填的行）
+     */
+    @Update("UPDATE bpm_application a JOIN (" +
+            "SELECT app_id, approver_id, approver_name, action, comment, approve_time, " +
+            "ROW_NUMBER() OVER (PARTITION BY app_id ORDER BY approve_time DESC, history_id DESC) AS rn " +
+            "FROM bpm_history WHERE app_id BETWEEN #{fromId} AND #{toId}" +
+            ") h ON h.app_id = a.app_id AND h.rn = 1 " +
+            "SET a.last_approver_id = h.approver_id, a.last_approver_name = h.approver_name, " +
+            "a.last_action = h.action, a.last_comment = h.comment, a.last_decision_time = h.approve_time " +
+            "WHERE a.app_id BETWEEN #{fromId} AND #{toId} AND a.last_decision_time IS NULL")
+    int backfillLastDecision(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    /**
+     * 按状态、类型统计申请人的申请数量
+     */
+    @Select("SELECT status, app_type, COUNT(*) AS app_count, MAX(submit_time) AS last_submit_time " +
+            "FROM bpm_application WHERE applicant_id = #{applicantId} AND del_flag = 0 " +
+            "GROUP BY status, app_type")
+    List<ApplicationStatusCountVo> selectStatusCountsByApplicant(@Param("applicantId") Long applicantId);
+
+    /**
+     * 统计申请人已通过的请假天数合计
+     */
+    @Select("SELECT COALESCE(SUM(l.days), 0) FROM bpm_application a " +
+            "JOIN bpm_leave_application l ON l.app_id = a.app_id " +
+            "WHERE a.applicant_id = #{applicantId} AND a.app_type = 'leave' AND a.status = 3 AND a.del_flag = 0")
+    BigDecimal sumApprovedLeaveDays(@Param("applicantId") Long applicantId);
+
+    /**
+     * 统计申请人已通过的报销金额合计
+     */
+    @Select("SELECT COALESCE(SUM(r.amount), 0) FROM bpm_application a " +
+            "JOIN bpm_reimburse_application r ON r.app_id = a.app_id " +
+            "WHERE a.applicant_id = #{applicantId} AND a.app_type = 'reimburse' AND a.status = 3 AND a.del_flag = 0")
+    BigDecimal sumApprovedReimburseAmount(@Param("applicantId") Long applicantId);
 }
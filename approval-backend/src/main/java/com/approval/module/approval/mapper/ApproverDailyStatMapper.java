@@ -0,0 +1,64 @@
+package com.approval.module.approval.mapper;
+
+import com.approval.module.approval.vo.ApproverDailyStatVo;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 审批人按天汇总Mapper
+ */
+@Mapper
+public interface ApproverDailyStatMapper {
+
+    /**
+     * 累加审批数量（不存在则插入）
+     */
+    @Insert("INSERT INTO bpm_approver_daily_stat (approver_id, stat_date, app_type, action, approval_count) " +
+            "VALUES (#{approverId}, #{statDate}, #{appType}, #{action}, #{delta}) " +
+            "ON DUPLICATE KEY UPDATE approval_count = approval_count + #{delta}")
+    int increase(@Param("approverId") Long approverId, @Param("statDate") LocalDate statDate,
+            @Param("appType") String appType, @Param("action") Integer action, @Param("delta") Integer delta);
+
+    /**
+     * 审批人全部审批按类型、动作汇总
+     */
+    @Select("SELECT app_type, action, SUM(approval_count) AS approval_count " +
+            "FROM bpm_approver_daily_stat WHERE approver_id = #{approverId} " +
+            "GROUP BY app_type, action")
+    List<ApproverDailyStatVo> selectTypeActionTotals(@Param("approverId") Long approverId);
+
+    /**
+     * 审批人指定日期区间内按天汇总 [startDate, endDate)
+     */
+    @Select("SELECT stat_date, SUM(approval_count) AS approval_count " +
+            "FROM bpm_approver_daily_stat " +
+            "WHERE approver_id = #{approverId} AND stat_date >= #{startDate} AND stat_date < #{endDate} " +
+            "GROUP BY stat_date")
+    List<ApproverDailyStatVo> selectDailyTotals(@Param("approverId") Long approverId,
+            @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Delete("DELETE FROM bpm_approver_daily_stat")
+    int deleteAll();
+
+    /**
+     * 从已处理任务及其最近一条审批历史重建汇总
+     */
+    @Insert("INSERT INTO bpm_approver_daily_stat (approver_id, stat_date, app_type, action, approval_count) " +
+            "SELECT t.assignee_id, DATE(COALESCE(h.approve_time, t.finish_time)), COALESCE(a.app_type, 'other'), " +
+            "COALESCE(h.action, 0), COUNT(*) " +
+            "FROM bpm_task t " +
+            "LEFT JOIN (SELECT task_id, action, approve_time, " +
+            "ROW_NUMBER() OVER (PARTITION BY task_id ORDER BY create_time DESC, history_id DESC) AS rn " +
+            "FROM bpm_history WHERE task_id IS NOT NULL) h ON h.task_id = t.task_id AND h.rn = 1 " +
+            "LEFT JOIN bpm_application a ON a.app_id = t.app_id " +
+            "WHERE t.status = 1 AND COALESCE(h.approve_time, t.finish_time) IS NOT NULL " +
+            "GROUP BY t.assignee_id, DATE(COALESCE(h.approve_time, t.finish_time)), " +
+            "COALESCE(a.app_type, 'other'), COALESCE(h.action, 0)")
+    int rebuildAll();
+}
@@ -2,11 +2,43 @@ package com.approval.module.approval.mapper;
 
 import com.approval.module.approval.entity.History;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * 审批历史Mapper
  */
 @Mapper
 public interface HistoryMapper extends BaseMapper<History> {
+
+    /**
+     * 批量查询每个任务最近一条审批历史（依赖 idx_task_create 索引）
+     */
+    @Select("<script>" +
+            "SELECT history_id, app_id, task_id, node_name, approver_id, approver_name, action, comment, " +
+            "approve_time, next_node, create_time FROM (" +
+            "SELECT h.*, ROW_NUMBER() OVER (PARTITION BY h.task_id ORDER BY h.create_time DESC, h.history_id DESC) AS rn " +
+            "FROM bpm_history h WHERE h.task_id IN " +
+            "<foreach collection='taskIds' item='taskId' open='(' separator=',' close=')'>#{taskId}</foreach>" +
+            ") latest WHERE latest.rn = 1" +
+            "</script>")
+    List<History> selectLatestByTaskIds(@Param("taskIds") Collection<Long> taskIds);
+
+    /**
+     * 多行插入审批历史
+     */
+    @Insert("<script>" +
+            "INSERT INTO bpm_history (app_id, task_id, node_name, approver_id, approver_name, action, comment, " +
+            "approve_time, next_node, create_time) VALUES " +
+            "<foreach collection='histories' item='h' separator=','>" +
+            "(#{h.appId}, #{h.taskId}, #{h.nodeName}, #{h.approverId}, #{h.approverName}, #{h.action}, " +
+            "#{h.comment}, #{h.approveTime}, #{h.nextNode}, #{h.createTime})" +
+            "</foreach>" +
+            "</script>")
+    int insertBatch(@Param("histories") Collection<History> histories);
 }
@@ -0,0 +1,61 @@
+package com.approval.module.approval.mapper;
+
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 申请人月度汇总Mapper
+ * <p>
+ * 按提交月份、申请部门、申请人、申请类型累计申请数、通过数与天数/金额合计。
+ */
+@Mapper
+public interface MonthlyApplicantStatMapper {
+
+    /**
+     * 累加汇总（不存在则插入），部门为空时记为 0
+     */
+    @Insert("INSERT INTO bpm_monthly_applicant_stat " +
+            "(stat_month, dept_id, applicant_id, app_type, app_count, approved_count, total_value) " +
+            "VALUES (#{statMonth}, COALESCE(#{deptId}, 0), #{applicantId}, #{appType}, " +
+            "#{appDelta}, #{approvedDelta}, COALESCE(#{value}, 0)) " +
+            "ON DUPLICATE KEY UPDATE app_count = app_count + #{appDelta}, " +
+            "approved_count = approved_count + #{approvedDelta}, " +
+            "total_value = total_value + COALESCE(#{value}, 0)")
+    int increase(@Param("statMonth") String statMonth, @Param("deptId") Long deptId,
+            @Param("applicantId") Long applicantId, @Param("appType") String appType,
+            @Param("appDelta") Integer appDelta, @Param("approvedDelta") Integer approvedDelta,
+            @Param("value") BigDecimal value);
+
+    /**
+     * 删除汇总，month 为空时删除全部
+     */
+    @Delete("<script>" +
+            "DELETE FROM bpm_monthly_applicant_stat" +
+            "<if test='statMonth != null'> WHERE stat_month = #{statMonth}</if>" +
+            "</script>")
+    int deleteByMonth(@Param("statMonth") String statMonth);
+
+    /**
+     * 从申请主表及请假、报销详情重建汇总，monthStart 为空时重建全部月份
+     * <p>
+     * 按提交时间范围过滤（[monthStart, nextMonthStart)），可走提交时间索引。
+     */
+    @Insert("<script>" +
+            "INSERT INTO bpm_monthly_applicant_stat " +
+            "(stat_month, dept_id, applicant_id, app_type, app_count, approved_count, total_value) " +
+            "SELECT DATE_FORMAT(a.submit_time, '%Y-%m'), COALESCE(a.dept_id, 0), a.applicant_id, a.app_type, " +
+            "COUNT(*), SUM(a.status = 3), COALESCE(SUM(COALESCE(l.days, r.amount)), 0) " +
+            "FROM bpm_application a " +
+            "LEFT JOIN bpm_leave_application l ON l.app_id = a.app_id " +
+            "LEFT JOIN bpm_reimburse_application r ON r.app_id = a.app_id " +
+            "WHERE a.del_flag = 0 AND a.submit_time IS NOT NULL " +
+            "<if test='monthStart != null'>AND a.submit_time &gt;= #{monthStart} AND a.submit_time &lt; #{nextMonthStart} </if>" +
+            "GROUP BY DATE_FORMAT(a.submit_time, '%Y-%m'), COALESCE(a.dept_id, 0), a.applicant_id, a.app_type" +
+            "</script>")
+    int rebuild(@Param("monthStart") LocalDateTime monthStart, @Param("nextMonthStart") LocalDateTime nextMonthStart);
+}
@@ -1,12 +1,79 @@
 package com.approval.module.approval.mapper;
 
 import com.approval.module.approval.entity.Task;
+import com.approval.module.approval.vo.TaskVo;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 任务Mapper
  */
 @Mapper
 public interface TaskMapper extends BaseMapper<Task> {
+
+    /**
+     * 分页查询待办任务，联表带出申请单号、类型、标题和申请人姓名
+     */
+    @Select("SELECT t.task_id, t.app_id, t.node_name, t.create_time, t.finish_time, " +
+            "a.app_no, a.app_type, a.title, u.real_name AS applicant_name " +
+            "FROM bpm_task t " +
+            "LEFT JOIN bpm_application a ON a.app_id = t.app_id AND a.del_flag = 0 " +
+            "LEFT JOIN sys_user u ON u.user_id = a.applicant_id AND u.del_flag = 0 " +
+            "WHERE t.assignee_id = #{userId} AND t.status = 0 " +
+            "ORDER BY t.create_time DESC")
+    Page<TaskVo> selectTodoTaskPage(Page<TaskVo> page, @Param("userId") Long userId);
+
+    /**
+     * 分页查询已办任务，联表带出申请单号、类型、标题和申请人姓名
+     */
+    @Select("SELECT t.task_id, t.app_id, t.node_name, t.create_time, t.finish_time, " +
+            "a.app_no, a.app_type, a.title, u.real_name AS applicant_name " +
+            "FROM bpm_task t " +
+            "LEFT JOIN bpm_application a ON a.app_id = t.app_id AND a.del_flag = 0 " +
+            "LEFT JOIN sys_user u ON u.user_id = a.applicant_id AND u.del_flag = 0 " +
+            "WHERE t.assignee_id = #{userId} AND t.status = 1 " +
+            "ORDER BY t.finish_time DESC")
+    Page<TaskVo> selectDoneTaskPage(Page<TaskVo> page, @Param("userId") Long userId);
+
+    /**
+     * 游标查询待办任务：按 (创建时间, 任务ID) 倒序取游标之后的 limit 条，不做 COUNT
+     */
+    @Select("<script>" +
+            "SELECT t.task_id, t.app_id, t.node_name, t.create_time, t.finish_time, " +
+            "a.app_no, a.app_type, a.title, u.real_name AS applicant_name " +
+            "FROM bpm_task t " +
+            "LEFT JOIN bpm_application a ON a.app_id = t.app_id AND a.del_flag = 0 " +
+            "LEFT JOIN sys_user u ON u.user_id = a.applicant_id AND u.del_flag = 0 " +
+            "WHERE t.assignee_id = #{userId} AND t.status = 0 " +
+            "<if test='cursorTime != null'>" +
+            "AND (t.create_time &lt; #{cursorTime} OR (t.create_time = #{cursorTime} AND t.task_id &lt; #{cursorId})) " +
+            "</if>" +
+            "ORDER BY t.create_time DESC, t.task_id DESC LIMIT #{limit}" +
+            "</script>")
+    List<TaskVo> selectTodoTaskList(@Param("userId") Long userId, @Param("cursorTime") LocalDateTime cursorTime,
+            @Param("cursorId") Long cursorId, @Param("limit") int limit);
+
+    /**
+     * 游标查询已办任务：按 (完成时间, 任务ID) 倒序取游标之后的 limit 条，不做 COUNT
+     */
+    @Select("<script>" +
+            "SELECT t.task_id, t.app_id, t.node_name, t.create_time, t.finish_time, " +
+            "a.app_no, a.app_type, a.title, u.real_name AS applicant_name " +
+            "FROM bpm_task t " +
+            "LEFT JOIN bpm_application a ON a.app_id = t.app_id AND a.del_flag = 0 " +
+            "LEFT JOIN sys_user u ON u.user_id = a.applicant_id AND u.del_flag = 0 " +
+            "WHERE t.assignee_id = #{userId} AND t.status = 1 " +
+            "<if test='cursorTime != null'>" +
+            "AND (t.finish_time &lt; #{cursorTime} OR (t.finish_time = #{cursorTime} AND t.task_id &lt; #{cursorId})) " +
+            "</if>" +
+            "ORDER BY t.finish_time DESC, t.task_id DESC LIMIT #{limit}" +
+            "</script>")
+    List<TaskVo> selectDoneTaskList(@Param("userId") Long userId, @Param("cursorTime") LocalDateTime cursorTime,
+            @Param("cursorId") Long cursorId, @Param("limit") int limit);
 }
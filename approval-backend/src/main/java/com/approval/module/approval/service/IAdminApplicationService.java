@@ -0,0 +1,25 @@
+package com.approval.module.approval.service;
+
+import com.approval.common.result.CursorPage;
+import com.approval.module.approval.vo.ApplicationVo;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+
+/**
+ * 管理员审批数据查询服务接口（只读）
+ */
+public interface IAdminApplicationService {
+
+    /**
+     * 分页查询全部申请
+     * <p>
+     * appNo 为完整单号时精确匹配，否则按前缀匹配；keyword 匹配单号或标题的任意部分（单字符只匹配单号前缀）
+     */
+    Page<ApplicationVo> getApplications(Integer pageNum, Integer pageSize, String appType, Integer status,
+            String appNo, String keyword, Long deptId, boolean includeChildren, Long applicantId);
+
+    /**
+     * 游标方式查询全部申请（不统计总数）
+     */
+    CursorPage<ApplicationVo> getApplicationsByCursor(String cursor, Integer size, String appType, Integer status,
+            String appNo, String keyword, Long deptId, boolean includeChildren, Long applicantId);
+}
@@ -1,11 +1,14 @@
 package com.approval.module.approval.service;
 
+import com.approval.common.result.CursorPage;
+import com.approval.module.approval.dto.BatchCreateApplicationDto;
 import com.approval.module.approval.dto.CreateLeaveDto;
 import com.approval.module.approval.dto.CreateReimburseDto;
 import com.approval.module.approval.vo.ApproverOptionVo;
 import com.approval.module.approval.vo.ApplicationHistoryVo;
 import com.approval.module.approval.vo.ApplicationSummaryVo;
 import com.approval.module.approval.vo.ApplicationVo;
+import com.approval.module.approval.vo.BatchItemResultVo;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 
 import java.time.LocalDateTime;
@@ -26,12 +29,23 @@ public interface IApplicationService {
      */
     Long createReimburseApplication(CreateReimburseDto dto, Long userId);
 
+    /**
+     * 批量代提交申请（需代提交权限，仅限本部门及下级部门人员），逐项返回申请ID或失败原因
+     */
+    List<BatchItemResultVo> batchCreateApplications(BatchCreateApplicationDto dto, Long operatorId);
+
     /**
      * 查询我的申请列表
      */
     Page<ApplicationVo> getMyApplications(Long userId, Integer pageNum, Integer pageSize,
             String appType, Integer status);
 
+    /**
+     * 游标方式查询我的申请列表（不统计总数）
+     */
+    CursorPage<ApplicationVo> getMyApplicationsByCursor(Long userId, String cursor, Integer size,
+            String appType, Integer status);
+
         /**
          * 查询审批历史
          */
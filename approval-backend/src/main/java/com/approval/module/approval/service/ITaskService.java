@@ -1,10 +1,15 @@
 package com.approval.module.approval.service;
 
+import com.approval.common.result.CursorPage;
 import com.approval.module.approval.dto.ApproveTaskDto;
+import com.approval.module.approval.dto.BatchApproveTaskDto;
 import com.approval.module.approval.vo.ApproverDashboardVo;
+import com.approval.module.approval.vo.BatchItemResultVo;
 import com.approval.module.approval.vo.TaskVo;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 
+import java.util.List;
+
 /**
  * 任务服务接口
  */
@@ -20,11 +25,26 @@ public interface ITaskService {
      */
     void approveTask(ApproveTaskDto dto, Long userId);
 
+    /**
+     * 批量审批任务（同一动作与意见），逐项返回处理结果
+     */
+    List<BatchItemResultVo> batchApproveTasks(BatchApproveTaskDto dto, Long userId);
+
     /**
      * 查询已办任务
      */
     Page<TaskVo> getDoneTasks(Long userId, Integer pageNum, Integer pageSize);
 
+    /**
+     * 游标方式查询待办任务（不统计总数）
+     */
+    CursorPage<TaskVo> getTodoTasksByCursor(Long userId, String cursor, Integer size);
+
+    /**
+     * 游标方式查询已办任务（不统计总数）
+     */
+    CursorPage<TaskVo> getDoneTasksByCursor(Long userId, String cursor, Integer size);
+
     /**
      * 获取审批人仪表盘统计
      */
@@ -0,0 +1,181 @@
+package com.approval.module.approval.service.impl;
+
+import com.approval.common.result.CursorPage;
+import com.approval.common.utils.CursorUtils;
+import com.approval.module.approval.cache.ApplicationSearchIndex;
+import com.approval.module.approval.entity.Application;
+import com.approval.module.approval.entity.LeaveApplication;
+import com.approval.module.approval.entity.ReimburseApplication;
+import com.approval.module.approval.mapper.ApplicationMapper;
+import com.approval.module.approval.mapper.LeaveApplicationMapper;
+import com.approval.module.approval.mapper.ReimburseApplicationMapper;
+import com.approval.module.approval.service.IAdminApplicationService;
+import com.approval.module.approval.vo.ApplicationVo;
+import com.approval.module.system.cache.DeptTreeCache;
+import com.approval.module.system.entity.User;
+import com.approval.module.system.mapper.DeptClosureMapper;
+import com.approval.module.system.mapper.UserMapper;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.BeanUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * 管理员审批数据查询服务实现
+ * <p>
+ * 筛选条件均落在 bpm_application 的索引列（单号、部门、申请人、提交时间）上；
+ * 一页数据的申请人、详情各批量查询一次，部门名称取自部门树缓存，查询次数与页大小无关。
+ */
+@Service
+@RequiredArgsConstructor
+public class AdminApplicationServiceImpl implements IAdminApplicationService {
+
+    private final ApplicationMapper applicationMapper;
+    private final LeaveApplicationMapper leaveApplicationMapper;
+    private final ReimburseApplicationMapper reimburseApplicationMapper;
+    private final UserMapper userMapper;
+    private final DeptTreeCache deptTreeCache;
+    private final ApplicationSearchIndex applicationSearchIndex;
+
+    /**
+     * 申请单号长度：AP + yyyyMMdd + 6位流水号
+     */
+    private static final int APP_NO_LENGTH = 16;
+
+    @Override
+    public Page<ApplicationVo> getApplications(Integer pageNum, Integer pageSize, String appType, Integer status,
+            String appNo, String keyword, Long deptId, boolean includeChildren, Long applicantId) {
+        LambdaQueryWrapper<Application> wrapper = buildQuery(appType, status, appNo, keyword, deptId, includeChildren, applicantId)
+                .orderByDesc(Application::getSubmitTime);
+
+        Page<Application> appPage = applicationMapper.selectPage(new Page<>(pageNum, pageSize), wrapper);
+
+        Page<ApplicationVo> voPage = new Page<>(appPage.getCurrent(), appPage.getSize(), appPage.getTotal());
+        voPage.setRecords(toApplicationVos(appPage.getRecords()));
+        return voPage;
+    }
+
+    @Override
+    public CursorPage<ApplicationVo> getApplicationsByCursor(String cursor, Integer size, String appType, Integer status,
+            String appNo, String keyword, Long deptId, boolean includeChildren, Long applicantId) {
+        CursorUtils.Cursor position = CursorUtils.decode(cursor);
+        int limit = CursorUtils.normalizeSize(size);
+
+        // 按 (提交时间, 申请ID) 倒序取游标之后的数据，多取一条判断是否还有下一页，不做 COUNT
+        LambdaQueryWrapper<Application> wrapper = buildQuery(appType, status, appNo, keyword, deptId, includeChildren, applicantId)
+                .and(position != null, w -> w.lt(Application::getSubmitTime, position.getTime())
+                        .or(o -> o.eq(Application::getSubmitTime, position.getTime())
+                                .lt(Application::getAppId, position.getId())))
+                .orderByDesc(Application::getSubmitTime, Application::getAppId)
+                .last("LIMIT " + (limit + 1));
+
+        CursorPage<Application> appPage = CursorPage.of(applicationMapper.selectList(wrapper), limit,
+                app -> CursorUtils.encode(app.getSubmitTime(), app.getAppId()));
+        return appPage.withRecords(toApplicationVos(appPage.getRecords()));
+    }
+
+    private LambdaQueryWrapper<Application> buildQuery(String appType, Integer status, String appNo, String keyword,
+            Long deptId, boolean includeChildren, Long applicantId) {
+        LambdaQueryWrapper<Application> wrapper = new LambdaQueryWrapper<Application>()
+                .eq(appType != null && !appType.isEmpty(), Application::getAppType, appType)
+                .eq(status != null, Application::getStatus, status)
+                .eq(applicantId != null, Application::getApplicantId, applicantId)
+                .eq(deptId != null && !includeChildren, Application::getDeptId, deptId)
+                .apply(deptId != null && includeChildren, DeptClosureMapper.DEPT_IN_SUBTREE, deptId);
+
+        // 单号：完整单号精确匹配，否则按前缀匹配，均走 app_no 唯一索引
+        String normalizedAppNo = appNo != null ? appNo.trim().toUpperCase(Locale.ROOT) : "";
+        wrapper.eq(normalizedAppNo.length() == APP_NO_LENGTH, Application::getAppNo, normalizedAppNo)
+                .likeRight(!normalizedAppNo.isEmpty() && normalizedAppNo.length() != APP_NO_LENGTH,
+                        Application::getAppNo, normalizedAppNo);
+
+        // 关键字：单号或标题任意位置匹配，走内存索引（命中过多时取最新的若干条）；
+        // 单字符关键字只按单号前缀匹配；索引关闭或启动构建期间回退到 LIKE
+        String trimmedKeyword = keyword != null ? keyword.trim() : "";
+        if (trimmedKeyword.length() == 1) {
+            wrapper.likeRight(Application::getAppNo, trimmedKeyword.toUpperCase(Locale.ROOT));
+        } else if (!trimmedKeyword.isEmpty()) {
+            List<Long> appIds = applicationSearchIndex.search(trimmedKeyword);
+            if (appIds == null) {
+                wrapper.and(w -> w.like(Application::getAppNo, trimmedKeyword)
+                        .or()
+                        .like(Application::getTitle, trimmedKeyword));
+            } else if (appIds.isEmpty()) {
+                wrapper.apply("1 = 0");
+            } else {
+                wrapper.in(Application::getAppId, appIds);
+            }
+        }
+        return wrapper;
+    }
+
+    private List<ApplicationVo> toApplicationVos(List<Application> records) {
+        if (records.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Long> userIds = records.stream()
+                .map(Application::getApplicantId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, User> userMap = userIds.isEmpty()
+                ? Collections.emptyMap()
+                : userMapper.selectBatchIds(userIds).stream()
+                        .collect(Collectors.toMap(User::getUserId, u -> u));
+
+        List<Long> leaveAppIds = records.stream()
+                .filter(app -> "leave".equals(app.getAppType()))
+                .map(Application::getAppId)
+                .collect(Collectors.toList());
+        List<Long> reimburseAppIds = records.stream()
+                .filter(app -> "reimburse".equals(app.getAppType()))
+                .map(Application::getAppId)
+                .collect(Collectors.toList());
+
+        Map<Long, LeaveApplication> leaveMap = leaveAppIds.isEmpty()
+                ? Collections.emptyMap()
+                : leaveApplicationMapper.selectList(new LambdaQueryWrapper<LeaveApplication>()
+                        .in(LeaveApplication::getAppId, leaveAppIds))
+                        .stream()
+                        .collect(Collectors.toMap(LeaveApplication::getAppId, leave -> leave));
+
+        Map<Long, ReimburseApplication> reimburseMap = reimburseAppIds.isEmpty()
+                ? Collections.emptyMap()
+                : reimburseApplicationMapper.selectList(new LambdaQueryWrapper<ReimburseApplication>()
+                        .in(ReimburseApplication::getAppId, reimburseAppIds))
+                        .stream()
+                        .collect(Collectors.toMap(ReimburseApplication::getAppId, reimburse -> reimburse));
+
+        return records.stream().map(app -> {
+            ApplicationVo vo = new ApplicationVo();
+            BeanUtils.copyProperties(app, vo);
+            User user = userMap.get(app.getApplicantId());
+            vo.setApplicantName(user != null ? user.getRealName() : "");
+            String deptName = deptTreeCache.getDeptName(app.getDeptId());
+            vo.setDeptName(deptName != null ? deptName : "");
+
+            if ("leave".equals(app.getAppType())) {
+                LeaveApplication leave = leaveMap.get(app.getAppId());
+                if (leave != null) {
+                    vo.setLeaveType(leave.getLeaveType());
+                }
+            } else if ("reimburse".equals(app.getAppType())) {
+                ReimburseApplication reimburse = reimburseMap.get(app.getAppId());
+                if (reimburse != null) {
+                    vo.setExpenseType(reimburse.getExpenseType());
+                }
+            }
+            return vo;
+        }).collect(Collectors.toList());
+    }
+}
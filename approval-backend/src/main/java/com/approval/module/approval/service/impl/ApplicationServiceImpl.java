@@ -1,43 +1,61 @@
 package com.approval.module.approval.service.impl;
 
 import com.approval.common.exception.BusinessException;
+import com.approval.common.result.CursorPage;
+import com.approval.common.utils.CursorUtils;
+import com.approval.module.approval.dto.BatchCreateApplicationDto;
 import com.approval.module.approval.dto.CreateLeaveDto;
 import com.approval.module.approval.dto.CreateReimburseDto;
 import com.approval.module.approval.entity.Application;
 import com.approval.module.approval.entity.LeaveApplication;
 import com.approval.module.approval.entity.ReimburseApplication;
+import com.approval.module.approval.cache.ApplicantSummaryCache;
+import com.approval.module.approval.cache.ApplicationSearchIndex;
+import com.approval.module.approval.cache.ApproverEligibilityCache;
 import com.approval.module.approval.mapper.ApplicationMapper;
 import com.approval.module.approval.mapper.LeaveApplicationMapper;
+import com.approval.module.approval.mapper.MonthlyApplicantStatMapper;
 import com.approval.module.approval.mapper.ReimburseApplicationMapper;
 import com.approval.module.approval.service.IApplicationService;
 import com.approval.module.approval.vo.ApproverOptionVo;
+import com.approval.module.approval.vo.BatchItemResultVo;
 import com.approval.module.approval.vo.ApplicationHistoryVo;
+import com.approval.module.approval.vo.ApplicationStatusCountVo;
 import com.approval.module.approval.vo.ApplicationSummaryVo;
 import com.approval.module.approval.vo.ApplicationVo;
+import com.approval.module.system.cache.DeptTreeCache;
+import com.approval.module.system.cache.PostPermissionCache;
 import com.approval.module.system.entity.Dept;
 import com.approval.module.system.entity.Post;
 import com.approval.module.system.entity.User;
 import com.approval.module.system.mapper.DeptMapper;
-import com.approval.module.system.mapper.PermissionMapper;
 import com.approval.module.system.mapper.PostMapper;
 import com.approval.module.system.mapper.UserMapper;
+import com.approval.module.system.service.ISequenceService;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.baomidou.mybatisplus.extension.toolkit.Db;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -55,14 +73,22 @@ public class ApplicationServiceImpl implements IApplicationService {
     private final com.approval.module.approval.mapper.HistoryMapper historyMapper;
     private final DeptMapper deptMapper;
     private final PostMapper postMapper;
-    private final PermissionMapper permissionMapper;
+    private final PostPermissionCache postPermissionCache;
+    private final ISequenceService sequenceService;
+    private final ApplicantSummaryCache applicantSummaryCache;
+    private final ApplicationSearchIndex applicationSearchIndex;
+    private final ApproverEligibilityCache approverEligibilityCache;
+    private final MonthlyApplicantStatMapper monthlyApplicantStatMapper;
+    private final DeptTreeCache deptTreeCache;
+    private final TransactionTemplate transactionTemplate;
 
     private static final int STATUS_APPROVED = 3;
     private static final List<Integer> HISTORY_STATUSES = Arrays.asList(STATUS_APPROVED, 4, 5);
     private static final String APPROVAL_PERMISSION_CODE = "APPROVAL_REVIEW";
+    private static final String PROXY_SUBMIT_PERMISSION_CODE = "APPLICATION_PROXY_SUBMIT";
+    private static final String APP_NO_PREFIX = "AP";
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public Long createLeaveApplication(CreateLeaveDto dto, Long userId) {
         // 1. 获取用户信息
         User user = userMapper.selectById(userId);
@@ -76,41 +102,47 @@ public class ApplicationServiceImpl implements IApplicationService {
         User approver = validateApprover(user, dto.getApproverId());
         Dept dept = deptMapper.selectById(user.getDeptId());
         String currentNode = dept != null ? dept.getDeptName() + "审批" : "部门审批";
-
-        // 2. 创建申请主表
-        Application application = new Application();
-        application.setAppNo(generateAppNo());
-        application.setAppType("leave");
-        application.setTitle(
-                "请假申请-" + (dto.getReason().length() > 10 ? dto.getReason().substring(0, 10) + "..." : dto.getReason()));
-        application.setApplicantId(userId);
-        application.setDeptId(user.getDeptId());
-        application.setStatus(1); // 待审批
-        application.setCurrentNode(currentNode);
-        application.setSubmitTime(LocalDateTime.now());
-
-        applicationMapper.insert(application);
-
-        // 3. 创建请假详情
-        LeaveApplication leave = new LeaveApplication();
-        leave.setAppId(application.getAppId());
-        leave.setLeaveType(dto.getLeaveType());
-        leave.setStartTime(dto.getStartTime());
-        leave.setEndTime(dto.getEndTime());
-        leave.setDays(dto.getDays());
-        leave.setReason(dto.getReason());
-        leave.setAttachment(dto.getAttachment());
-
-        leaveApplicationMapper.insert(leave);
-
-        // 4. 创建审批任务
-        createTask(application, approver.getUserId(), approver.getRealName());
-
-        return application.getAppId();
+        // 单号在业务事务开始前分配，号段续租不与业务事务同时占用连接
+        String appNo = generateAppNo();
+
+        return transactionTemplate.execute(status -> {
+            // 2. 创建申请主表
+            Application application = new Application();
+            application.setAppNo(appNo);
+            application.setAppType("leave");
+            application.setTitle(buildTitle("请假申请-", dto.getReason()));
+            application.setApplicantId(userId);
+            application.setDeptId(user.getDeptId());
+            application.setStatus(1); // 待审批
+            application.setCurrentNode(currentNode);
+            application.setSubmitTime(LocalDateTime.now());
+
+            applicationMapper.insert(application);
+            applicationSearchIndex.add(application);
+
+            // 3. 创建请假详情
+            LeaveApplication leave = new LeaveApplication();
+            leave.setAppId(application.getAppId());
+            leave.setLeaveType(dto.getLeaveType());
+            leave.setStartTime(dto.getStartTime());
+            leave.setEndTime(dto.getEndTime());
+            leave.setDays(dto.getDays());
+            leave.setReason(dto.getReason());
+            leave.setAttachment(dto.getAttachment());
+
+            leaveApplicationMapper.insert(leave);
+
+            // 4. 创建审批任务
+            createTask(application, approver.getUserId(), approver.getRealName());
+            monthlyApplicantStatMapper.increase(YearMonth.from(application.getSubmitTime()).toString(),
+                    application.getDeptId(), userId, "leave", 1, 0, dto.getDays());
+            applicantSummaryCache.evict(userId);
+
+            return application.getAppId();
+        });
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public Long createReimburseApplication(CreateReimburseDto dto, Long userId) {
         // 1. 获取用户信息
         User user = userMapper.selectById(userId);
@@ -124,36 +156,246 @@ public class ApplicationServiceImpl implements IApplicationService {
         User approver = validateApprover(user, dto.getApproverId());
         Dept dept = deptMapper.selectById(user.getDeptId());
         String currentNode = dept != null ? dept.getDeptName() + "审批" : "部门审批";
+        // 单号在业务事务开始前分配，号段续租不与业务事务同时占用连接
+        String appNo = generateAppNo();
+
+        return transactionTemplate.execute(status -> {
+            // 2. 创建申请主表
+            Application application = new Application();
+            application.setAppNo(appNo);
+            application.setAppType("reimburse");
+            application.setTitle(buildTitle("报销申请-", dto.getReason()));
+            application.setApplicantId(userId);
+            application.setDeptId(user.getDeptId());
+            application.setStatus(1); // 待审批
+            application.setCurrentNode(currentNode);
+            application.setSubmitTime(LocalDateTime.now());
+
+            applicationMapper.insert(application);
+            applicationSearchIndex.add(application);
+
+            // 3. 创建报销详情
+            ReimburseApplication reimburse = new ReimburseApplication();
+            reimburse.setAppId(application.getAppId());
+            reimburse.setExpenseType(dto.getExpenseType());
+            reimburse.setAmount(dto.getAmount());
+            reimburse.setReason(dto.getReason());
+            reimburse.setInvoiceAttachment(dto.getInvoiceAttachment());
+            reimburse.setOccurDate(dto.getOccurDate());
+
+            reimburseApplicationMapper.insert(reimburse);
+
+            // 4. 创建审批任务
+            createTask(application, approver.getUserId(), approver.getRealName());
+            monthlyApplicantStatMapper.increase(YearMonth.from(application.getSubmitTime()).toString(),
+                    application.getDeptId(), userId, "reimburse", 1, 0, dto.getAmount());
+            applicantSummaryCache.evict(userId);
+
+            return application.getAppId();
+        });
+    }
+
+    @Override
+    public List<BatchItemResultVo> batchCreateApplications(BatchCreateApplicationDto dto, Long operatorId) {
+        User operator = userMapper.selectById(operatorId);
+        if (operator == null || operator.getPostId() == null
+                || !postPermissionCache.hasPermission(operator.getPostId(), PROXY_SUBMIT_PERMISSION_CODE)) {
+            throw new BusinessException(403, "暂无代提交申请权限");
+        }
+        if (operator.getDeptId() == null) {
+            throw new BusinessException(403, "您尚未分配部门，无法代提交申请");
+        }
+
+        // 1. 申请人、审批人、部门各一次批量查询
+        List<BatchCreateApplicationDto.Item> items = dto.getItems();
+        Set<Long> userIds = new HashSet<>();
+        for (BatchCreateApplicationDto.Item item : items) {
+            userIds.add(item.getApplicantId());
+            Long approverId = resolveApproverId(item);
+            if (approverId != null) {
+                userIds.add(approverId);
+            }
+        }
+        userIds.remove(null);
+        Map<Long, User> userMap = userIds.isEmpty()
+                ? Collections.emptyMap()
+                : userMapper.selectBatchIds(userIds).stream()
+                        .collect(Collectors.toMap(User::getUserId, user -> user));
+        Set<Long> deptIds = userMap.values().stream()
+                .map(User::getDeptId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Dept> deptMap = deptIds.isEmpty()
+                ? Collections.emptyMap()
+                : deptMapper.selectBatchIds(deptIds).stream()
+                        .collect(Collectors.toMap(Dept::getDeptId, dept -> dept));
+
+        // 2. 逐项校验（不访问数据库）
+        List<BatchItemResultVo> results = new ArrayList<>(items.size());
+        List<Integer> validIndexes = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            String error = checkBatchItem(items.get(i), userMap, operator);
+            if (error != null) {
+                results.add(BatchItemResultVo.fail(i, null, error));
+            } else {
+                results.add(null);
+                validIndexes.add(i);
+            }
+        }
+        if (validIndexes.isEmpty()) {
+            return results;
+        }
+
+        // 3. 申请单号在业务事务开始前一次分配，主表、详情、任务各一次 JDBC 批量写入
+        LocalDateTime now = LocalDateTime.now();
+        String date = now.format(DateTimeFormatter.ofPattern("yyyyMMdd"));
+        long[] serials = sequenceService.nextValues(APP_NO_PREFIX, date, validIndexes.size(),
+                () -> currentMaxSerial(APP_NO_PREFIX + date));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Application> applications = new ArrayList<>(validIndexes.size());
+            for (int n = 0; n < validIndexes.size(); n++) {
+                BatchCreateApplicationDto.Item item = items.get(validIndexes.get(n));
+                User applicant = userMap.get(item.getApplicantId());
+                Dept dept = deptMap.get(applicant.getDeptId());
+                boolean leave = "leave".equals(item.getAppType());
+
+                Application application = new Application();
+                application.setAppNo(APP_NO_PREFIX + date + String.format("%06d", serials[n]));
+                application.setAppType(item.getAppType());
+                application.setTitle(leave
+                        ? buildTitle("请假申请-", item.getLeave().getReason())
+                        : buildTitle("报销申请-", item.getReimburse().getReason()));
+                application.setApplicantId(applicant.getUserId());
+                application.setDeptId(applicant.getDeptId());
+                application.setStatus(1); // 待审批
+                application.setCurrentNode(dept != null ? dept.getDeptName() + "审批" : "部门审批");
+                application.setSubmitTime(now);
+                application.setProxySubmitterId(operatorId);
+                applications.add(application);
+            }
+            Db.saveBatch(applications);
+
+            List<LeaveApplication> leaves = new ArrayList<>();
+            List<ReimburseApplication> reimburses = new ArrayList<>();
+            List<com.approval.module.approval.entity.Task> tasks = new ArrayList<>(applications.size());
+            for (int n = 0; n < validIndexes.size(); n++) {
+                BatchCreateApplicationDto.Item item = items.get(validIndexes.get(n));
+                Application application = applications.get(n);
+                if ("leave".equals(item.getAppType())) {
+                    CreateLeaveDto leaveDto = item.getLeave();
+                    LeaveApplication leave = new LeaveApplication();
+                    leave.setAppId(application.getAppId());
+                    leave.setLeaveType(leaveDto.getLeaveType());
+                    leave.setStartTime(leaveDto.getStartTime());
+                    leave.setEndTime(leaveDto.getEndTime());
+                    leave.setDays(leaveDto.getDays());
+                    leave.setReason(leaveDto.getReason());
+                    leave.setAttachment(leaveDto.getAttachment());
+                    leaves.add(leave);
+                } else {
+                    CreateReimburseDto reimburseDto = item.getReimburse();
+                    ReimburseApplication reimburse = new ReimburseApplication();
+                    reimburse.setAppId(application.getAppId());
+                    reimburse.setExpenseType(reimburseDto.getExpenseType());
+                    reimburse.setAmount(reimburseDto.getAmount());
+                    reimburse.setReason(reimburseDto.getReason());
+                    reimburse.setInvoiceAttachment(reimburseDto.getInvoiceAttachment());
+                    reimburse.setOccurDate(reimburseDto.getOccurDate());
+                    reimburses.add(reimburse);
+                }
+
+                User approver = userMap.get(resolveApproverId(item));
+                com.approval.module.approval.entity.Task task = new com.approval.module.approval.entity.Task();
+                task.setAppId(application.getAppId());
+                task.setNodeName(application.getCurrentNode());
+                task.setAssigneeId(approver.getUserId());
+                task.setAssigneeName(approver.getRealName());
+                task.setStatus(0);
+                task.setCreateTime(now);
+                tasks.add(task);
+
+                results.set(validIndexes.get(n), BatchItemResultVo.success(validIndexes.get(n), application.getAppId()));
+            }
+            if (!leaves.isEmpty()) {
+                Db.saveBatch(leaves);
+            }
+            if (!reimburses.isEmpty()) {
+                Db.saveBatch(reimburses);
+            }
+            Db.saveBatch(tasks);
+
+            // 4. 同步检索索引；月度汇总按 (部门, 申请人, 类型) 合并后累加
+            String statMonth = YearMonth.from(now).toString();
+            Map<String, List<Integer>> statGroups = new LinkedHashMap<>();
+            for (int n = 0; n < validIndexes.size(); n++) {
+                Application application = applications.get(n);
+                applicationSearchIndex.add(application);
+                statGroups.computeIfAbsent(application.getDeptId() + "|" + application.getApplicantId() + "|"
+                        + application.getAppType(), key -> new ArrayList<>()).add(n);
+            }
+            statGroups.values().forEach(group -> {
+                Application first = applications.get(group.get(0));
+                BigDecimal total = BigDecimal.ZERO;
+                for (int n : group) {
+                    BatchCreateApplicationDto.Item item = items.get(validIndexes.get(n));
+                    BigDecimal value = "leave".equals(item.getAppType())
+                            ? item.getLeave().getDays() : item.getReimburse().getAmount();
+                    if (value != null) {
+                        total = total.add(value);
+                    }
+                }
+                monthlyApplicantStatMapper.increase(statMonth, first.getDeptId(), first.getApplicantId(),
+                        first.getAppType(), group.size(), 0, total);
+            });
+            applications.stream()
+                    .map(Application::getApplicantId)
+                    .distinct()
+                    .forEach(applicantSummaryCache::evict);
+        });
+
+        return results;
+    }
+
+    private Long resolveApproverId(BatchCreateApplicationDto.Item item) {
+        if ("leave".equals(item.getAppType())) {
+            return item.getLeave() != null ? item.getLeave().getApproverId() : null;
+        }
+        if ("reimburse".equals(item.getAppType())) {
+            return item.getReimburse() != null ? item.getReimburse().getApproverId() : null;
+        }
+        return null;
+    }
+
+    private String checkBatchItem(BatchCreateApplicationDto.Item item, Map<Long, User> userMap, User operator) {
+        if ("leave".equals(item.getAppType())) {
+            if (item.getLeave() == null) {
+                return "请假申请内容不能为空";
+            }
+        } else if ("reimburse".equals(item.getAppType())) {
+            if (item.getReimburse() == null) {
+                return "报销申请内容不能为空";
+            }
+        } else {
+            return "不支持的申请类型";
+        }
 
-        // 2. 创建申请主表
-        Application application = new Application();
-        application.setAppNo(generateAppNo());
-        application.setAppType("reimburse");
-        application.setTitle(
-                "报销申请-" + (dto.getReason().length() > 10 ? dto.getReason().substring(0, 10) + "..." : dto.getReason()));
-        application.setApplicantId(userId);
-        application.setDeptId(user.getDeptId());
-        application.setStatus(1); // 待审批
-        application.setCurrentNode(currentNode);
-        application.setSubmitTime(LocalDateTime.now());
-
-        applicationMapper.insert(application);
-
-        // 3. 创建报销详情
-        ReimburseApplication reimburse = new ReimburseApplication();
-        reimburse.setAppId(application.getAppId());
-        reimburse.setExpenseType(dto.getExpenseType());
-        reimburse.setAmount(dto.getAmount());
-        reimburse.setReason(dto.getReason());
-        reimburse.setInvoiceAttachment(dto.getInvoiceAttachment());
-        reimburse.setOccurDate(dto.getOccurDate());
-
-        reimburseApplicationMapper.insert(reimburse);
-
-        // 4. 创建审批任务
-        createTask(application, approver.getUserId(), approver.getRealName());
-
-        return application.getAppId();
+        User applicant = userMap.get(item.getApplicantId());
+        if (applicant == null) {
+            return "用户不存在";
+        }
+        if (applicant.getStatus() == null || applicant.getStatus() == 0) {
+            return "申请人已停用";
+        }
+        if (applicant.getDeptId() == null) {
+            return "申请人尚未分配部门，暂时无法提交申请";
+        }
+        // 只能为本部门及下级部门的人员代提交
+        if (!deptTreeCache.isSelfOrDescendant(operator.getDeptId(), applicant.getDeptId())) {
+            return "无权为其他部门人员代提交申请";
+        }
+        Long approverId = resolveApproverId(item);
+        return checkApprover(applicant, approverId, approverId != null ? userMap.get(approverId) : null);
     }
 
     private void createTask(Application app, Long assigneeId, String assigneeName) {
@@ -168,31 +410,57 @@ public class ApplicationServiceImpl implements IApplicationService {
     }
 
     private User validateApprover(User applicant, Long approverId) {
+        // 命中部门可选审批人缓存即通过；未命中再查库，给出具体的不通过原因
+        if (approverId != null && !Objects.equals(applicant.getUserId(), approverId)) {
+            ApproverOptionVo option = approverEligibilityCache.findApprover(applicant.getDeptId(), approverId);
+            if (option != null) {
+                User approver = new User();
+                approver.setUserId(option.getUserId());
+                approver.setRealName(option.getRealName());
+                approver.setDeptId(option.getDeptId());
+                approver.setPostId(option.getPostId());
+                approver.setStatus(1);
+                return approver;
+            }
+        }
+
+        User approver = approverId != null && !Objects.equals(applicant.getUserId(), approverId)
+                ? userMapper.selectById(approverId)
+                : null;
+        String error = checkApprover(applicant, approverId, approver);
+        if (error != null) {
+            throw new BusinessException(error);
+        }
+        return approver;
+    }
+
+    /**
+     * 校验审批人（审批人已查出），不通过时返回原因
+     */
+    private String checkApprover(User applicant, Long approverId, User approver) {
         if (approverId == null) {
-            throw new BusinessException("请选择审批人");
+            return "请选择审批人";
         }
         if (Objects.equals(applicant.getUserId(), approverId)) {
-            throw new BusinessException("申请人不能审批自己的申请");
+            return "申请人不能审批自己的申请";
         }
-
-        User approver = userMapper.selectById(approverId);
         if (approver == null || approver.getStatus() == null || approver.getStatus() == 0) {
-            throw new BusinessException("审批人无效或已停用");
+            return "审批人无效或已停用";
         }
         if (approver.getDeptId() == null || !Objects.equals(applicant.getDeptId(), approver.getDeptId())) {
-            throw new BusinessException("审批人必须与申请人属于同一部门");
+            return "审批人必须与申请人属于同一部门";
         }
         if (approver.getPostId() == null) {
-            throw new BusinessException("审批人尚未分配岗位，无法处理审批");
+            return "审批人尚未分配岗位，无法处理审批";
         }
-
-        List<String> permissions = permissionMapper.selectPermissionCodesByPostId(approver.getPostId());
-        boolean hasApprovalPermission = permissions != null
-                && permissions.stream().anyMatch(APPROVAL_PERMISSION_CODE::equals);
-        if (!hasApprovalPermission) {
-            throw new BusinessException("所选人员暂无审批权限");
+        if (!postPermissionCache.hasPermission(approver.getPostId(), APPROVAL_PERMISSION_CODE)) {
+            return "所选人员暂无审批权限";
         }
-        return approver;
+        return null;
+    }
+
+    private String buildTitle(String prefix, String reason) {
+        return prefix + (reason.length() > 10 ? reason.substring(0, 10) + "..." : reason);
     }
 
     @Override
@@ -207,7 +475,42 @@ public class ApplicationServiceImpl implements IApplicationService {
                 .orderByDesc(Application::getSubmitTime);
 
         Page<Application> appPage = applicationMapper.selectPage(page, wrapper);
-        List<Application> records = appPage.getRecords();
+
+        // 转换为VO
+        Page<ApplicationVo> voPage = new Page<>(appPage.getCurrent(), appPage.getSize(), appPage.getTotal());
+        voPage.setRecords(toMyApplicationVos(userId, appPage.getRecords()));
+        return voPage;
+    }
+
+    @Override
+    public CursorPage<ApplicationVo> getMyApplicationsByCursor(Long userId, String cursor, Integer size,
+            String appType, Integer status) {
+        CursorUtils.Cursor position = CursorUtils.decode(cursor);
+        int limit = CursorUtils.normalizeSize(size);
+
+        // 按 (提交时间, 申请ID) 倒序取游标之后的数据，多取一条判断是否还有下一页
+        LambdaQueryWrapper<Application> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(Application::getApplicantId, userId)
+                .eq(appType != null && !appType.isEmpty(), Application::getAppType, appType)
+                .eq(status != null, Application::getStatus, status)
+                .and(position != null, w -> w.lt(Application::getSubmitTime, position.getTime())
+                        .or(o -> o.eq(Application::getSubmitTime, position.getTime())
+                                .lt(Application::getAppId, position.getId())))
+                .orderByDesc(Application::getSubmitTime, Application::getAppId)
+                .last("LIMIT " + (limit + 1));
+
+        CursorPage<Application> appPage = CursorPage.of(applicationMapper.selectList(wrapper), limit,
+                app -> CursorUtils.encode(app.getSubmitTime(), app.getAppId()));
+        return appPage.withRecords(toMyApplicationVos(userId, appPage.getRecords()));
+    }
+
+    /**
+     * 本人申请列表转换为VO，请假/报销明细按页批量查询
+     */
+    private List<ApplicationVo> toMyApplicationVos(Long userId, List<Application> records) {
+        if (records.isEmpty()) {
+            return new ArrayList<>();
+        }
 
         List<Long> leaveAppIds = records.stream()
                 .filter(app -> "leave".equals(app.getAppType()))
@@ -232,9 +535,6 @@ public class ApplicationServiceImpl implements IApplicationService {
                         .stream()
                         .collect(Collectors.toMap(ReimburseApplication::getAppId, reimburse -> reimburse));
 
-        // 转换为VO
-        Page<ApplicationVo> voPage = new Page<>(appPage.getCurrent(), appPage.getSize(), appPage.getTotal());
-
         // 批量获取申请人信息
         User user = userMapper.selectById(userId);
         String deptName = "";
@@ -244,7 +544,7 @@ public class ApplicationServiceImpl implements IApplicationService {
         }
         final String finalDeptName = deptName;
 
-        voPage.setRecords(records.stream().map(app -> {
+        return records.stream().map(app -> {
             ApplicationVo vo = new ApplicationVo();
             org.springframework.beans.BeanUtils.copyProperties(app, vo);
             vo.setApplicantName(user != null ? user.getRealName() : "");
@@ -263,9 +563,7 @@ public class ApplicationServiceImpl implements IApplicationService {
             }
 
             return vo;
-        }).collect(Collectors.toList()));
-
-        return voPage;
+        }).collect(Collectors.toList());
     }
 
     @Override
@@ -275,100 +573,9 @@ public class ApplicationServiceImpl implements IApplicationService {
         long current = (pageNum == null || pageNum <= 0) ? 1L : pageNum;
         long size = (pageSize == null || pageSize <= 0) ? 10L : pageSize;
 
-        LambdaQueryWrapper<Application> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(Application::getApplicantId, userId)
-                .ge(startTime != null, Application::getSubmitTime, startTime)
-                .le(endTime != null, Application::getSubmitTime, endTime)
-                .orderByDesc(Application::getSubmitTime);
-
-        if (status != null) {
-            wrapper.eq(Application::getStatus, status);
-        } else {
-            wrapper.in(Application::getStatus, HISTORY_STATUSES);
-        }
-
-        if (appType != null && !appType.isEmpty()) {
-            wrapper.eq(Application::getAppType, appType);
-        }
-
-        List<Application> applications = applicationMapper.selectList(wrapper);
-        if (applications.isEmpty()) {
-            return new Page<>(current, size, 0);
-        }
-
-        User applicant = userMapper.selectById(userId);
-        String deptName = "";
-        if (applicant != null && applicant.getDeptId() != null) {
-            com.approval.module.system.entity.Dept dept = deptMapper.selectById(applicant.getDeptId());
-            deptName = dept != null ? dept.getDeptName() : "";
-        }
-
-        List<ApplicationHistoryVo> historyVos = new ArrayList<>();
-        for (Application application : applications) {
-            LeaveApplication leaveDetail = null;
-            ReimburseApplication reimburseDetail = null;
-
-            if ("leave".equals(application.getAppType())) {
-                leaveDetail = leaveApplicationMapper.selectOne(
-                        new LambdaQueryWrapper<LeaveApplication>().eq(LeaveApplication::getAppId, application.getAppId()));
-                if (leaveType != null && (leaveDetail == null || !leaveType.equals(leaveDetail.getLeaveType()))) {
-                    continue;
-                }
-            }
-
-            if ("reimburse".equals(application.getAppType())) {
-                reimburseDetail = reimburseApplicationMapper.selectOne(
-                        new LambdaQueryWrapper<ReimburseApplication>().eq(ReimburseApplication::getAppId, application.getAppId()));
-                if (expenseType != null && (reimburseDetail == null || !expenseType.equals(reimburseDetail.getExpenseType()))) {
-                    continue;
-                }
-            }
-
-            com.approval.module.approval.entity.History latestHistory = historyMapper.selectOne(
-                    new LambdaQueryWrapper<com.approval.module.approval.entity.History>()
-                            .eq(com.approval.module.approval.entity.History::getAppId, application.getAppId())
-                            .orderByDesc(com.approval.module.approval.entity.History::getApproveTime)
-                            .last("limit 1"));
-
-            if (approverName != null && !approverName.isEmpty()) {
-                if (latestHistory == null || latestHistory.getApproverName() == null
-                        || !latestHistory.getApproverName().contains(approverName)) {
-                    continue;
-                }
-            }
-
-            ApplicationHistoryVo vo = ApplicationHistoryVo.builder()
-                    .appId(application.getAppId())
-                    .appNo(application.getAppNo())
-                    .appType(application.getAppType())
-                    .title(application.getTitle())
-                    .status(application.getStatus())
-                    .applicantName(applicant != null ? applicant.getRealName() : "")
-                    .deptName(deptName)
-                    .currentNode(application.getCurrentNode())
-                    .approverName(latestHistory != null ? latestHistory.getApproverName() : null)
-                    .action(latestHistory != null ? latestHistory.getAction() : null)
-                    .comment(latestHistory != null ? latestHistory.getComment() : null)
-                    .leaveType(leaveDetail != null ? leaveDetail.getLeaveType() : null)
-                    .leaveDays(leaveDetail != null ? leaveDetail.getDays() : null)
-                    .expenseType(reimburseDetail != null ? reimburseDetail.getExpenseType() : null)
-                    .expenseAmount(reimburseDetail != null ? reimburseDetail.getAmount() : null)
-                    .submitTime(application.getSubmitTime())
-                    .approveTime(latestHistory != null ? latestHistory.getApproveTime() : null)
-                    .finishTime(application.getFinishTime())
-                    .build();
-            historyVos.add(vo);
-        }
-
-        int fromIndex = (int) Math.max((current - 1) * size, 0);
-        int toIndex = Math.min((int) (fromIndex + size), historyVos.size());
-        List<ApplicationHistoryVo> records = fromIndex >= historyVos.size()
-                ? Collections.emptyList()
-                : historyVos.subList(fromIndex, toIndex);
-
-        Page<ApplicationHistoryVo> page = new Page<>(current, size, historyVos.size());
-        page.setRecords(records);
-        return page;
+        List<Integer> statuses = status != null ? Collections.singletonList(status) : HISTORY_STATUSES;
+        return applicationMapper.selectHistoryPage(new Page<>(current, size), userId, statuses, appType,
+                startTime, endTime, approverName, leaveType, expenseType);
     }
 
     @Override
@@ -408,61 +615,7 @@ public class ApplicationServiceImpl implements IApplicationService {
             throw new BusinessException("用户不存在");
         }
 
-        List<Application> applications = applicationMapper.selectList(
-            new LambdaQueryWrapper<Application>().eq(Application::getApplicantId, userId));
-
-        long totalCount = applications.size();
-        long pendingCount = applications.stream().filter(app -> Integer.valueOf(1).equals(app.getStatus())).count();
-        long approvedCount = applications.stream().filter(app -> Integer.valueOf(STATUS_APPROVED).equals(app.getStatus())).count();
-        long rejectedCount = applications.stream().filter(app -> Integer.valueOf(4).equals(app.getStatus())).count();
-        long withdrawnCount = applications.stream().filter(app -> Integer.valueOf(5).equals(app.getStatus())).count();
-
-        List<Long> leaveAppIds = applications.stream()
-            .filter(app -> "leave".equals(app.getAppType()))
-            .map(Application::getAppId)
-            .collect(Collectors.toList());
-        List<Long> approvedLeaveAppIds = applications.stream()
-            .filter(app -> "leave".equals(app.getAppType()) && Integer.valueOf(STATUS_APPROVED).equals(app.getStatus()))
-            .map(Application::getAppId)
-            .collect(Collectors.toList());
-        List<Long> reimburseAppIds = applications.stream()
-            .filter(app -> "reimburse".equals(app.getAppType()))
-            .map(Application::getAppId)
-            .collect(Collectors.toList());
-        List<Long> approvedReimburseAppIds = applications.stream()
-            .filter(app -> "reimburse".equals(app.getAppType()) && Integer.valueOf(STATUS_APPROVED).equals(app.getStatus()))
-            .map(Application::getAppId)
-            .collect(Collectors.toList());
-
-        long leaveCount = leaveAppIds.size();
-        long reimburseCount = reimburseAppIds.size();
-
-        BigDecimal totalLeaveDays = approvedLeaveAppIds.isEmpty() ? BigDecimal.ZERO :
-            leaveApplicationMapper.selectList(new LambdaQueryWrapper<LeaveApplication>()
-                .in(LeaveApplication::getAppId, approvedLeaveAppIds))
-                .stream()
-                .map(LeaveApplication::getDays)
-                .filter(Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalReimburseAmount = approvedReimburseAppIds.isEmpty() ? BigDecimal.ZERO :
-            reimburseApplicationMapper.selectList(new LambdaQueryWrapper<ReimburseApplication>()
-                .in(ReimburseApplication::getAppId, approvedReimburseAppIds))
-                .stream()
-                .map(ReimburseApplication::getAmount)
-                .filter(Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal approvalRate = totalCount == 0 ? BigDecimal.ZERO
-            : BigDecimal.valueOf(approvedCount)
-                .multiply(BigDecimal.valueOf(100))
-                .divide(BigDecimal.valueOf(totalCount), 2, RoundingMode.HALF_UP);
-
-        LocalDateTime lastSubmitTime = applications.stream()
-            .map(Application::getSubmitTime)
-            .filter(Objects::nonNull)
-            .max(LocalDateTime::compareTo)
-            .orElse(null);
+        ApplicationSummaryVo stat = applicantSummaryCache.get(userId, () -> loadSummaryStat(userId));
 
         com.approval.module.system.entity.Dept dept = user.getDeptId() != null
             ? deptMapper.selectById(user.getDeptId())
@@ -471,11 +624,62 @@ public class ApplicationServiceImpl implements IApplicationService {
             ? postMapper.selectById(user.getPostId())
             : null;
 
+        ApplicationSummaryVo summary = new ApplicationSummaryVo();
+        org.springframework.beans.BeanUtils.copyProperties(stat, summary);
+        summary.setUserId(userId);
+        summary.setRealName(user.getRealName());
+        summary.setDeptName(dept != null ? dept.getDeptName() : "");
+        summary.setPostName(post != null ? post.getPostName() : "");
+        return summary;
+        }
+
+    /**
+     * 计算申请人的聚合统计：一次分组计数加两次合计
+     */
+    private ApplicationSummaryVo loadSummaryStat(Long userId) {
+        long totalCount = 0;
+        long pendingCount = 0;
+        long approvedCount = 0;
+        long rejectedCount = 0;
+        long withdrawnCount = 0;
+        long leaveCount = 0;
+        long reimburseCount = 0;
+        LocalDateTime lastSubmitTime = null;
+
+        for (ApplicationStatusCountVo row : applicationMapper.selectStatusCountsByApplicant(userId)) {
+            long count = row.getAppCount() != null ? row.getAppCount() : 0L;
+            totalCount += count;
+            if (Integer.valueOf(1).equals(row.getStatus())) {
+                pendingCount += count;
+            } else if (Integer.valueOf(STATUS_APPROVED).equals(row.getStatus())) {
+                approvedCount += count;
+            } else if (Integer.valueOf(4).equals(row.getStatus())) {
+                rejectedCount += count;
+            } else if (Integer.valueOf(5).equals(row.getStatus())) {
+                withdrawnCount += count;
+            }
+            if ("leave".equals(row.getAppType())) {
+                leaveCount += count;
+            } else if ("reimburse".equals(row.getAppType())) {
+                reimburseCount += count;
+            }
+            if (row.getLastSubmitTime() != null
+                    && (lastSubmitTime == null || row.getLastSubmitTime().isAfter(lastSubmitTime))) {
+                lastSubmitTime = row.getLastSubmitTime();
+            }
+        }
+
+        BigDecimal totalLeaveDays = approvedCount == 0 ? BigDecimal.ZERO
+            : applicationMapper.sumApprovedLeaveDays(userId);
+        BigDecimal totalReimburseAmount = approvedCount == 0 ? BigDecimal.ZERO
+            : applicationMapper.sumApprovedReimburseAmount(userId);
+
+        BigDecimal approvalRate = totalCount == 0 ? BigDecimal.ZERO
+            : BigDecimal.valueOf(approvedCount)
+                .multiply(BigDecimal.valueOf(100))
+                .divide(BigDecimal.valueOf(totalCount), 2, RoundingMode.HALF_UP);
+
         return ApplicationSummaryVo.builder()
-            .userId(userId)
-            .realName(user.getRealName())
-            .deptName(dept != null ? dept.getDeptName() : "")
-            .postName(post != null ? post.getPostName() : "")
             .totalCount(totalCount)
             .pendingCount(pendingCount)
             .approvedCount(approvedCount)
@@ -488,7 +692,7 @@ public class ApplicationServiceImpl implements IApplicationService {
             .approvalRate(approvalRate)
             .lastSubmitTime(lastSubmitTime)
             .build();
-        }
+    }
 
     @Override
     public List<ApproverOptionVo> getDeptApprovers(Long userId, Long deptId) {
@@ -502,54 +706,7 @@ public class ApplicationServiceImpl implements IApplicationService {
             return Collections.emptyList();
         }
 
-        List<User> candidates = userMapper.selectList(new LambdaQueryWrapper<User>()
-                .eq(User::getDeptId, targetDeptId)
-                .eq(User::getStatus, 1)
-                .isNotNull(User::getPostId));
-        if (candidates.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        List<Long> postIds = candidates.stream()
-                .map(User::getPostId)
-                .filter(Objects::nonNull)
-                .distinct()
-                .collect(Collectors.toList());
-
-        Map<Long, Post> postMap = postIds.isEmpty()
-                ? Collections.emptyMap()
-                : postMapper.selectBatchIds(postIds).stream()
-                        .filter(Objects::nonNull)
-                .collect(Collectors.toMap(Post::getPostId, post -> post, (first, second) -> first));
-
-        Map<Long, List<String>> permissionMap = new HashMap<>();
-        for (Long postId : postIds) {
-            List<String> codes = permissionMapper.selectPermissionCodesByPostId(postId);
-            permissionMap.put(postId, codes != null ? codes : Collections.emptyList());
-        }
-
-        Dept dept = deptMapper.selectById(targetDeptId);
-        String deptName = dept != null ? dept.getDeptName() : null;
-
-        return candidates.stream()
-                .filter(candidate -> {
-                    List<String> codes = permissionMap.get(candidate.getPostId());
-                    return codes != null && codes.contains(APPROVAL_PERMISSION_CODE);
-                })
-                .map(candidate -> {
-                    ApproverOptionVo vo = new ApproverOptionVo();
-                    vo.setUserId(candidate.getUserId());
-                    vo.setRealName(candidate.getRealName());
-                    vo.setDeptId(targetDeptId);
-                    vo.setDeptName(deptName);
-                    Post post = postMap.get(candidate.getPostId());
-                    if (post != null) {
-                        vo.setPostId(post.getPostId());
-                        vo.setPostName(post.getPostName());
-                    }
-                    return vo;
-                })
-                .collect(Collectors.toList());
+        return new ArrayList<>(approverEligibilityCache.getApprovers(targetDeptId));
     }
 
     @Override
@@ -569,25 +726,38 @@ public class ApplicationServiceImpl implements IApplicationService {
             throw new BusinessException("只能撤回待审批状态的申请");
         }
 
-        application.setStatus(5); // 已撤回
-        applicationMapper.updateById(application);
+        // 仅当仍为待审批时撤回，与审批并发时只有一方成功
+        int updated = applicationMapper.update(null, new LambdaUpdateWrapper<Application>()
+                .set(Application::getStatus, 5) // 已撤回
+                .eq(Application::getAppId, appId)
+                .eq(Application::getStatus, 1));
+        if (updated == 0) {
+            throw new BusinessException(409, "申请已被处理，无法撤回");
+        }
 
         // 删除待办任务
         taskMapper.delete(
                 new LambdaQueryWrapper<com.approval.module.approval.entity.Task>()
                         .eq(com.approval.module.approval.entity.Task::getAppId, appId)
                         .eq(com.approval.module.approval.entity.Task::getStatus, 0));
+        applicantSummaryCache.evict(userId);
     }
 
     /**
      * 生成申请单号
-     * 格式：AP + yyyyMMdd + 6位流水号
+     * 格式：AP + yyyyMMdd + 6位流水号，流水号按天重置，由序列服务按号段分配
      */
     private String generateAppNo() {
         String date = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        // 简化处理，实际应该查询当天最大流水号
-        long count = applicationMapper.selectCount(null);
-        String serial = String.format("%06d", count + 1);
-        return "AP" + date + serial;
+        long serial = sequenceService.nextValue(APP_NO_PREFIX, date, () -> currentMaxSerial(APP_NO_PREFIX + date));
+        return APP_NO_PREFIX + date + String.format("%06d", serial);
+    }
+
+    /**
+     * 当天已使用的最大流水号，作为当天序列的起点；查询失败直接抛出，不从 0 开始以免重复发号
+     */
+    private long currentMaxSerial(String prefix) {
+        Long maxSerial = applicationMapper.selectMaxSerial(prefix);
+        return maxSerial != null ? maxSerial : 0L;
     }
 }
@@ -1,16 +1,24 @@
 package com.approval.module.approval.service.impl;
 
 import com.approval.common.exception.BusinessException;
+import com.approval.common.result.CursorPage;
+import com.approval.common.utils.CursorUtils;
+import com.approval.module.approval.cache.ApplicantSummaryCache;
 import com.approval.module.approval.dto.ApproveTaskDto;
+import com.approval.module.approval.dto.BatchApproveTaskDto;
 import com.approval.module.approval.entity.Application;
 import com.approval.module.approval.entity.History;
 import com.approval.module.approval.entity.Task;
 import com.approval.module.approval.mapper.ApplicationMapper;
+import com.approval.module.approval.mapper.ApproverDailyStatMapper;
 import com.approval.module.approval.mapper.HistoryMapper;
+import com.approval.module.approval.mapper.MonthlyApplicantStatMapper;
 import com.approval.module.approval.mapper.TaskMapper;
 import com.approval.module.approval.service.ITaskService;
 import com.approval.module.approval.vo.ApprovalTypeStatVo;
+import com.approval.module.approval.vo.ApproverDailyStatVo;
 import com.approval.module.approval.vo.ApproverDashboardVo;
+import com.approval.module.approval.vo.BatchItemResultVo;
 import com.approval.module.approval.vo.DailyApprovalStatVo;
 import com.approval.module.approval.vo.TaskVo;
 import com.approval.module.system.entity.Dept;
@@ -19,7 +27,7 @@ import com.approval.module.system.entity.User;
 import com.approval.module.system.mapper.DeptMapper;
 import com.approval.module.system.mapper.PostMapper;
 import com.approval.module.system.mapper.UserMapper;
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -29,12 +37,17 @@ import java.time.DateTimeException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -51,41 +64,19 @@ public class TaskServiceImpl implements ITaskService {
     private final UserMapper userMapper;
     private final DeptMapper deptMapper;
     private final PostMapper postMapper;
+    private final ApproverDailyStatMapper approverDailyStatMapper;
+    private final MonthlyApplicantStatMapper monthlyApplicantStatMapper;
+    private final ApplicantSummaryCache applicantSummaryCache;
+
+    /**
+     * 可审批的申请状态：待审批、审批中
+     */
+    private static final List<Integer> PENDING_STATUSES = Arrays.asList(1, 2);
 
     @Override
     public Page<TaskVo> getTodoTasks(Long userId, Integer pageNum, Integer pageSize) {
-        Page<Task> page = new Page<>(pageNum, pageSize);
-
-        LambdaQueryWrapper<Task> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(Task::getAssigneeId, userId)
-                .eq(Task::getStatus, 0) // 待处理
-                .orderByDesc(Task::getCreateTime);
-
-        Page<Task> taskPage = taskMapper.selectPage(page, wrapper);
-
-        Page<TaskVo> voPage = new Page<>(taskPage.getCurrent(), taskPage.getSize(), taskPage.getTotal());
-
-        voPage.setRecords(taskPage.getRecords().stream().map(task -> {
-            TaskVo vo = new TaskVo();
-            org.springframework.beans.BeanUtils.copyProperties(task, vo);
-
-            // 查询申请信息
-            Application app = applicationMapper.selectById(task.getAppId());
-            if (app != null) {
-                vo.setAppNo(app.getAppNo());
-                vo.setAppType(app.getAppType());
-                vo.setTitle(app.getTitle());
-
-                User applicant = userMapper.selectById(app.getApplicantId());
-                if (applicant != null) {
-                    vo.setApplicantName(applicant.getRealName());
-                }
-            }
-
-            return vo;
-        }).collect(java.util.stream.Collectors.toList()));
-
-        return voPage;
+        // 单条联表查询带出申请和申请人信息，每页查询次数固定
+        return taskMapper.selectTodoTaskPage(new Page<>(pageNum, pageSize), userId);
     }
 
     @Override
@@ -111,16 +102,16 @@ public class TaskServiceImpl implements ITaskService {
         if (application == null) {
             throw new BusinessException("申请不存在");
         }
+        if (!PENDING_STATUSES.contains(application.getStatus())) {
+            throw new BusinessException(409, "申请已撤回或已办结，请刷新后重试");
+        }
 
         // 4. 获取审批人信息
         User approver = userMapper.selectById(userId);
 
-        // 5. 更新任务状态
-        task.setStatus(1); // 已处理
-        task.setFinishTime(LocalDateTime.now());
-        taskMapper.updateById(task);
+        LocalDateTime now = LocalDateTime.now();
 
-        // 6. 记录审批历史
+        // 5. 记录审批历史
         History history = new History();
         history.setAppId(task.getAppId());
         history.setTaskId(task.getTaskId());
@@ -129,71 +120,279 @@ public class TaskServiceImpl implements ITaskService {
         history.setApproverName(approver.getRealName());
         history.setAction(dto.getAction());
         history.setComment(dto.getComment());
-        history.setCreateTime(LocalDateTime.now());
-        history.setApproveTime(LocalDateTime.now());
+        history.setCreateTime(now);
+        history.setApproveTime(now);
 
-        // 7. 更新申请状态
+        // 6. 更新申请状态
         if (dto.getAction() == 1) {
             // 同意 - 简化流程，直接通过
             application.setStatus(3); // 已通过
-            application.setFinishTime(LocalDateTime.now());
+            application.setFinishTime(now);
             history.setNextNode("结束");
         } else {
             // 拒绝
             application.setStatus(4); // 已拒绝
-            application.setFinishTime(LocalDateTime.now());
+            application.setFinishTime(now);
             history.setNextNode("结束");
         }
 
-        applicationMapper.updateById(application);
+        // 同步最近审批信息，列表与筛选直接读取申请主表
+        application.setLastApproverId(userId);
+        application.setLastApproverName(approver.getRealName());
+        application.setLastAction(dto.getAction());
+        application.setLastComment(dto.getComment());
+        application.setLastDecisionTime(now);
+
+        // 7. 条件更新申请与任务：与撤回一致，先锁申请行再锁任务行，避免交叉加锁死锁；
+        //    仅当申请仍在审批中、任务仍待处理时更新，并发时失败方整体回滚
+        int appUpdated = applicationMapper.update(null, new LambdaUpdateWrapper<Application>()
+                .set(Application::getStatus, application.getStatus())
+                .set(Application::getFinishTime, now)
+                .set(Application::getLastApproverId, userId)
+                .set(Application::getLastApproverName, approver.getRealName())
+                .set(Application::getLastAction, dto.getAction())
+                .set(Application::getLastComment, dto.getComment())
+                .set(Application::getLastDecisionTime, now)
+                .eq(Application::getAppId, application.getAppId())
+                .in(Application::getStatus, PENDING_STATUSES));
+        if (appUpdated == 0) {
+            throw new BusinessException(409, "申请已撤回或已办结，请刷新后重试");
+        }
+        if (!markTaskDone(task.getTaskId(), now)) {
+            throw new BusinessException(409, "任务已被处理，请刷新后重试");
+        }
         historyMapper.insert(history);
+        approverDailyStatMapper.increase(userId, now.toLocalDate(), application.getAppType(), dto.getAction(), 1);
+        if (dto.getAction() == 1 && application.getSubmitTime() != null) {
+            // 月度汇总按提交月份归集
+            monthlyApplicantStatMapper.increase(YearMonth.from(application.getSubmitTime()).toString(),
+                    application.getDeptId(), application.getApplicantId(), application.getAppType(), 0, 1, null);
+        }
+        applicantSummaryCache.evict(application.getApplicantId());
     }
 
     @Override
-    public Page<TaskVo> getDoneTasks(Long userId, Integer pageNum, Integer pageSize) {
-        Page<Task> page = new Page<>(pageNum, pageSize);
+    @Transactional(rollbackFor = Exception.class)
+    public List<BatchItemResultVo> batchApproveTasks(BatchApproveTaskDto dto, Long userId) {
+        List<Long> taskIds = dto.getTaskIds();
+        Set<Long> distinctIds = taskIds.stream().filter(Objects::nonNull).collect(Collectors.toSet());
 
-        LambdaQueryWrapper<Task> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(Task::getAssigneeId, userId)
-                .eq(Task::getStatus, 1) // 已处理
-                .orderByDesc(Task::getFinishTime);
+        // 1. 一次查出全部任务及其申请
+        Map<Long, Task> taskMap = distinctIds.isEmpty()
+                ? Collections.emptyMap()
+                : taskMapper.selectBatchIds(distinctIds).stream()
+                        .collect(Collectors.toMap(Task::getTaskId, task -> task));
+        Set<Long> appIds = taskMap.values().stream().map(Task::getAppId).collect(Collectors.toSet());
+        Map<Long, Application> appMap = appIds.isEmpty()
+                ? Collections.emptyMap()
+                : applicationMapper.selectBatchIds(appIds).stream()
+                        .collect(Collectors.toMap(Application::getAppId, app -> app));
+
+        // 2. 逐项校验（不访问数据库），通过的任务统一处理
+        List<BatchItemResultVo> results = new ArrayList<>(taskIds.size());
+        Map<Long, Task> validTasks = new LinkedHashMap<>();
+        Set<Long> validAppIds = new HashSet<>();
+        for (int i = 0; i < taskIds.size(); i++) {
+            Long taskId = taskIds.get(i);
+            Task task = taskMap.get(taskId);
+            Application application = task != null ? appMap.get(task.getAppId()) : null;
+            String error = null;
+            if (task == null) {
+                error = "任务不存在";
+            } else if (!task.getAssigneeId().equals(userId)) {
+                error = "无权处理此任务";
+            } else if (task.getStatus() == 1) {
+                error = "任务已处理，请勿重复操作";
+            } else if (validTasks.containsKey(taskId)) {
+                error = "任务重复提交";
+            } else if (application == null) {
+                error = "申请不存在";
+            } else if (!PENDING_STATUSES.contains(application.getStatus())) {
+                error = "申请已撤回或已办结";
+            } else if (!validAppIds.add(application.getAppId())) {
+                error = "同一申请的任务重复提交";
+            }
 
-        Page<Task> taskPage = taskMapper.selectPage(page, wrapper);
+            if (error != null) {
+                results.add(BatchItemResultVo.fail(i, taskId, error));
+            } else {
+                validTasks.put(taskId, task);
+                results.add(BatchItemResultVo.success(i, taskId));
+            }
+        }
+        if (validTasks.isEmpty()) {
+            return results;
+        }
 
-        Page<TaskVo> voPage = new Page<>(taskPage.getCurrent(), taskPage.getSize(), taskPage.getTotal());
+        User approver = userMapper.selectById(userId);
+        LocalDateTime now = LocalDateTime.now();
+        boolean approved = dto.getAction() == 1;
+
+        // 3. 逐项条件更新（与单条审批一致：先申请后任务，按申请ID顺序处理），不使用加锁读；
+        //    校验之后被并发撤回或处理的条目标记为失败，其余照常处理
+        Map<Long, Integer> resultIndexes = new HashMap<>();
+        for (BatchItemResultVo result : results) {
+            if (Boolean.TRUE.equals(result.getSuccess())) {
+                resultIndexes.put(result.getId(), result.getIndex());
+            }
+        }
+        List<Task> ordered = new ArrayList<>(validTasks.values());
+        ordered.sort(Comparator.comparing(Task::getAppId));
+        for (Task task : ordered) {
+            Application application = appMap.get(task.getAppId());
+            String error = null;
+            int appUpdated = applicationMapper.update(null, new LambdaUpdateWrapper<Application>()
+                    .set(Application::getStatus, approved ? 3 : 4) // 已通过 / 已拒绝
+                    .set(Application::getFinishTime, now)
+                    .set(Application::getLastApproverId, userId)
+                    .set(Application::getLastApproverName, approver.getRealName())
+                    .set(Application::getLastAction, dto.getAction())
+                    .set(Application::getLastComment, dto.getComment())
+                    .set(Application::getLastDecisionTime, now)
+                    .eq(Application::getAppId, application.getAppId())
+                    .in(Application::getStatus, PENDING_STATUSES));
+            if (appUpdated == 0) {
+                error = "申请已撤回或已办结";
+            } else if (!markTaskDone(task.getTaskId(), now)) {
+                // 申请行已由本事务更新（持有行锁），按校验时的值恢复
+                restoreApplication(application);
+                error = "任务已被处理";
+            }
+            if (error != null) {
+                validTasks.remove(task.getTaskId());
+                validAppIds.remove(task.getAppId());
+                int index = resultIndexes.get(task.getTaskId());
+                results.set(index, BatchItemResultVo.fail(index, task.getTaskId(), error));
+            }
+        }
+        if (validTasks.isEmpty()) {
+            return results;
+        }
 
-        voPage.setRecords(taskPage.getRecords().stream().map(task -> {
-            TaskVo vo = new TaskVo();
-            org.springframework.beans.BeanUtils.copyProperties(task, vo);
+        // 4. 审批历史一次多行插入
+        List<History> histories = new ArrayList<>(validTasks.size());
+        for (Task task : validTasks.values()) {
+            History history = new History();
+            history.setAppId(task.getAppId());
+            history.setTaskId(task.getTaskId());
+            history.setNodeName(task.getNodeName());
+            history.setApproverId(userId);
+            history.setApproverName(approver.getRealName());
+            history.setAction(dto.getAction());
+            history.setComment(dto.getComment());
+            history.setNextNode("结束");
+            history.setCreateTime(now);
+            history.setApproveTime(now);
+            histories.add(history);
+        }
+        historyMapper.insertBatch(histories);
+
+        // 5. 汇总按维度合并后累加
+        List<Application> applications = validAppIds.stream().map(appMap::get).collect(Collectors.toList());
+        applications.stream()
+                .collect(Collectors.groupingBy(Application::getAppType, Collectors.counting()))
+                .forEach((appType, count) -> approverDailyStatMapper.increase(
+                        userId, now.toLocalDate(), appType, dto.getAction(), count.intValue()));
+        if (approved) {
+            applications.stream()
+                    .filter(app -> app.getSubmitTime() != null)
+                    .collect(Collectors.groupingBy(app -> YearMonth.from(app.getSubmitTime()) + "|" + app.getDeptId()
+                            + "|" + app.getApplicantId() + "|" + app.getAppType()))
+                    .values()
+                    .forEach(group -> {
+                        Application first = group.get(0);
+                        monthlyApplicantStatMapper.increase(YearMonth.from(first.getSubmitTime()).toString(),
+                                first.getDeptId(), first.getApplicantId(), first.getAppType(), 0, group.size(), null);
+                    });
+        }
+        applications.stream()
+                .map(Application::getApplicantId)
+                .distinct()
+                .forEach(applicantSummaryCache::evict);
 
-            // 查询申请信息
-            Application app = applicationMapper.selectById(task.getAppId());
-            if (app != null) {
-                vo.setAppNo(app.getAppNo());
-                vo.setAppType(app.getAppType());
-                vo.setTitle(app.getTitle());
+        return results;
+    }
 
-                User applicant = userMapper.selectById(app.getApplicantId());
-                if (applicant != null) {
-                    vo.setApplicantName(applicant.getRealName());
-                }
-            }
+    /**
+     * 仅当任务仍为待处理时标记为已处理
+     */
+    private boolean markTaskDone(Long taskId, LocalDateTime now) {
+        return taskMapper.update(null, new LambdaUpdateWrapper<Task>()
+                .set(Task::getStatus, 1) // 已处理
+                .set(Task::getFinishTime, now)
+                .eq(Task::getTaskId, taskId)
+                .eq(Task::getStatus, 0)) > 0;
+    }
+
+    private void restoreApplication(Application application) {
+        applicationMapper.update(null, new LambdaUpdateWrapper<Application>()
+                .set(Application::getStatus, application.getStatus())
+                .set(Application::getFinishTime, application.getFinishTime())
+                .set(Application::getLastApproverId, application.getLastApproverId())
+                .set(Application::getLastApproverName, application.getLastApproverName())
+                .set(Application::getLastAction, application.getLastAction())
+                .set(Application::getLastComment, application.getLastComment())
+                .set(Application::getLastDecisionTime, application.getLastDecisionTime())
+                .eq(Application::getAppId, application.getAppId()));
+    }
 
-            // 查询审批结果（从历史记录）
-            History history = historyMapper.selectOne(
-                    new LambdaQueryWrapper<History>()
-                            .eq(History::getTaskId, task.getTaskId())
-                            .orderByDesc(History::getCreateTime)
-                            .last("LIMIT 1"));
+    @Override
+    public Page<TaskVo> getDoneTasks(Long userId, Integer pageNum, Integer pageSize) {
+        Page<TaskVo> page = taskMapper.selectDoneTaskPage(new Page<>(pageNum, pageSize), userId);
+        List<TaskVo> records = page.getRecords();
+        if (records.isEmpty()) {
+            return page;
+        }
+
+        fillLatestHistory(records);
+        return page;
+    }
+
+    @Override
+    public CursorPage<TaskVo> getTodoTasksByCursor(Long userId, String cursor, Integer size) {
+        CursorUtils.Cursor position = CursorUtils.decode(cursor);
+        int limit = CursorUtils.normalizeSize(size);
+        List<TaskVo> fetched = taskMapper.selectTodoTaskList(userId,
+                position != null ? position.getTime() : null,
+                position != null ? position.getId() : null,
+                limit + 1);
+        return CursorPage.of(fetched, limit, vo -> CursorUtils.encode(vo.getCreateTime(), vo.getTaskId()));
+    }
+
+    @Override
+    public CursorPage<TaskVo> getDoneTasksByCursor(Long userId, String cursor, Integer size) {
+        CursorUtils.Cursor position = CursorUtils.decode(cursor);
+        int limit = CursorUtils.normalizeSize(size);
+        List<TaskVo> fetched = taskMapper.selectDoneTaskList(userId,
+                position != null ? position.getTime() : null,
+                position != null ? position.getId() : null,
+                limit + 1);
+        CursorPage<TaskVo> page = CursorPage.of(fetched, limit,
+                vo -> CursorUtils.encode(vo.getFinishTime(), vo.getTaskId()));
+        fillLatestHistory(page.getRecords());
+        return page;
+    }
+
+    /**
+     * 审批结果取每个任务最近一条历史，整页一次查询
+     */
+    private void fillLatestHistory(List<TaskVo> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        List<Long> taskIds = records.stream()
+                .map(TaskVo::getTaskId)
+                .collect(Collectors.toList());
+        Map<Long, History> historyMap = historyMapper.selectLatestByTaskIds(taskIds).stream()
+                .collect(Collectors.toMap(History::getTaskId, Function.identity(), (first, second) -> first));
+
+        for (TaskVo vo : records) {
+            History history = historyMap.get(vo.getTaskId());
             if (history != null) {
                 vo.setAction(history.getAction());
                 vo.setComment(history.getComment());
             }
-
-            return vo;
-        }).collect(java.util.stream.Collectors.toList()));
-
-        return voPage;
+        }
     }
 
     @Override
@@ -217,50 +416,20 @@ public class TaskServiceImpl implements ITaskService {
             postName = post != null ? post.getPostName() : "";
         }
 
-        List<Task> finishedTasks = taskMapper.selectList(new LambdaQueryWrapper<Task>()
-            .eq(Task::getAssigneeId, userId)
-            .eq(Task::getStatus, 1));
-
-        List<Long> taskIds = finishedTasks.stream()
-                .map(Task::getTaskId)
-                .collect(Collectors.toList());
-        Map<Long, History> latestHistoryMap = buildLatestHistoryMap(taskIds);
-
-        List<DailyApprovalStatVo> dailyStats = buildDailyStats(finishedTasks, latestHistoryMap, targetMonth);
-
-        if (finishedTasks.isEmpty()) {
-            return ApproverDashboardVo.builder()
-                .realName(user.getRealName())
-                .deptName(deptName)
-                .postName(postName)
-                .totalCount(0L)
-                .approvedCount(0L)
-                .rejectedCount(0L)
-                .typeStats(Collections.emptyList())
-                .dailyStats(dailyStats)
-                .build();
-        }
-
-        long approvedCount = latestHistoryMap.values().stream()
-                .filter(history -> history != null && Integer.valueOf(1).equals(history.getAction()))
-                .count();
-        long rejectedCount = latestHistoryMap.values().stream()
-                .filter(history -> history != null && Integer.valueOf(2).equals(history.getAction()))
-                .count();
-
-        List<Long> appIds = finishedTasks.stream()
-                .map(Task::getAppId)
-                .collect(Collectors.toList());
-        Map<Long, Application> applicationMap = appIds.isEmpty()
-                ? Collections.emptyMap()
-                : applicationMapper.selectBatchIds(appIds).stream()
-                        .collect(Collectors.toMap(Application::getAppId, Function.identity()));
-
+        // 全部审批按类型、动作汇总（来自按天汇总表，行数与审批人活跃天数相关，与任务量无关）
+        long totalCount = 0;
+        long approvedCount = 0;
+        long rejectedCount = 0;
         Map<String, Long> typeCounter = new HashMap<>();
-        for (Task task : finishedTasks) {
-            Application application = applicationMap.get(task.getAppId());
-            String appType = application != null ? application.getAppType() : "other";
-            typeCounter.merge(appType, 1L, Long::sum);
+        for (ApproverDailyStatVo row : approverDailyStatMapper.selectTypeActionTotals(userId)) {
+            long count = row.getApprovalCount() != null ? row.getApprovalCount() : 0L;
+            totalCount += count;
+            if (Integer.valueOf(1).equals(row.getAction())) {
+                approvedCount += count;
+            } else if (Integer.valueOf(2).equals(row.getAction())) {
+                rejectedCount += count;
+            }
+            typeCounter.merge(row.getAppType() != null ? row.getAppType() : "other", count, Long::sum);
         }
 
         List<ApprovalTypeStatVo> typeStats = typeCounter.entrySet().stream()
@@ -276,11 +445,11 @@ public class TaskServiceImpl implements ITaskService {
                 .realName(user.getRealName())
                 .deptName(deptName)
                 .postName(postName)
-                .totalCount((long) finishedTasks.size())
+                .totalCount(totalCount)
                 .approvedCount(approvedCount)
                 .rejectedCount(rejectedCount)
                 .typeStats(typeStats)
-                .dailyStats(dailyStats)
+                .dailyStats(buildDailyStats(userId, targetMonth))
                 .build();
     }
 
@@ -295,10 +464,7 @@ public class TaskServiceImpl implements ITaskService {
         }
     }
 
-    private List<DailyApprovalStatVo> buildDailyStats(
-            List<Task> tasks,
-            Map<Long, History> latestHistoryMap,
-            YearMonth targetMonth) {
+    private List<DailyApprovalStatVo> buildDailyStats(Long userId, YearMonth targetMonth) {
         YearMonth month = targetMonth != null ? targetMonth : YearMonth.now();
         LocalDate startDate = month.atDay(1);
         LocalDate endDate = month.plusMonths(1).atDay(1);
@@ -308,20 +474,9 @@ public class TaskServiceImpl implements ITaskService {
             counter.put(date, 0L);
         }
 
-        if (tasks != null && !tasks.isEmpty()) {
-            for (Task task : tasks) {
-                History history = latestHistoryMap != null ? latestHistoryMap.get(task.getTaskId()) : null;
-                LocalDateTime time = history != null && history.getApproveTime() != null
-                        ? history.getApproveTime()
-                        : task.getFinishTime();
-                if (time == null) {
-                    continue;
-                }
-
-                LocalDate date = time.toLocalDate();
-                if (!date.isBefore(startDate) && date.isBefore(endDate)) {
-                    counter.merge(date, 1L, Long::sum);
-                }
+        for (ApproverDailyStatVo row : approverDailyStatMapper.selectDailyTotals(userId, startDate, endDate)) {
+            if (row.getStatDate() != null && row.getApprovalCount() != null) {
+                counter.merge(row.getStatDate(), row.getApprovalCount(), Long::sum);
             }
         }
 
@@ -333,39 +488,6 @@ public class TaskServiceImpl implements ITaskService {
                 .collect(Collectors.toList());
     }
 
-    private Map<Long, History> buildLatestHistoryMap(List<Long> taskIds) {
-        if (taskIds == null || taskIds.isEmpty()) {
-            return Collections.emptyMap();
-        }
-
-        List<History> histories = historyMapper.selectList(
-                new LambdaQueryWrapper<History>().in(History::getTaskId, taskIds));
-        if (histories.isEmpty()) {
-            return Collections.emptyMap();
-        }
-
-        Map<Long, History> map = new HashMap<>();
-        for (History history : histories) {
-            History existing = map.get(history.getTaskId());
-            if (existing == null) {
-                map.put(history.getTaskId(), history);
-                continue;
-            }
-
-            LocalDateTime existingTime = existing.getApproveTime() != null ? existing.getApproveTime() : existing.getCreateTime();
-            LocalDateTime currentTime = history.getApproveTime() != null ? history.getApproveTime() : history.getCreateTime();
-
-            if (currentTime == null) {
-                continue;
-            }
-
-            if (existingTime == null || currentTime.isAfter(existingTime)) {
-                map.put(history.getTaskId(), history);
-            }
-        }
-        return map;
-    }
-
     private String resolveTypeLabel(String appType) {
         if (appType == null) {
             return "其他";
@@ -0,0 +1,21 @@
+package com.approval.module.approval.vo;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 申请按状态、类型分组计数
+ */
+@Data
+public class ApplicationStatusCountVo {
+
+    private Integer status;
+
+    private String appType;
+
+    private Long appCount;
+
+    /** 分组内最近提交时间 */
+    private LocalDateTime lastSubmitTime;
+}
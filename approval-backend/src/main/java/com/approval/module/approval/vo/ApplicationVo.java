@@ -30,6 +30,9 @@ public class ApplicationVo {
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime submitTime;
 
+    /** 代提交人ID，本人提交为空 */
+    private Long proxySubmitterId;
+
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime finishTime;
 
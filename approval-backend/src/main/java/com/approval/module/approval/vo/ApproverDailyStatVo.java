@@ -0,0 +1,21 @@
+package com.approval.module.approval.vo;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * 审批人按天汇总统计行
+ */
+@Data
+public class ApproverDailyStatVo {
+
+    private LocalDate statDate;
+
+    private String appType;
+
+    /** 审批动作：1=同意 2=拒绝 */
+    private Integer action;
+
+    private Long approvalCount;
+}
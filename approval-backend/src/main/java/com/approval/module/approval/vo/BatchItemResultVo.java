@@ -0,0 +1,38 @@
+package com.approval.module.approval.vo;
+
+import lombok.Data;
+
+/**
+ * 批量操作单项结果
+ */
+@Data
+public class BatchItemResultVo {
+
+    /** 在请求列表中的位置（从0开始） */
+    private Integer index;
+
+    /** 业务ID（任务ID或新建的申请ID），失败时可能为空 */
+    private Long id;
+
+    private Boolean success;
+
+    /** 失败原因 */
+    private String message;
+
+    public static BatchItemResultVo success(int index, Long id) {
+        BatchItemResultVo vo = new BatchItemResultVo();
+        vo.setIndex(index);
+        vo.setId(id);
+        vo.setSuccess(true);
+        return vo;
+    }
+
+    public static BatchItemResultVo fail(int index, Long id, String message) {
+        BatchItemResultVo vo = new BatchItemResultVo();
+        vo.setIndex(index);
+        vo.setId(id);
+        vo.setSuccess(false);
+        vo.setMessage(message);
+        return vo;
+    }
+}
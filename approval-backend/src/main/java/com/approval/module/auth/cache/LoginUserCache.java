@@ -0,0 +1,104 @@
+package com.approval.module.auth.cache;
+
+import com.approval.common.cache.CacheInvalidationBus;
+import com.approval.common.cache.LocalCache;
+import com.approval.common.security.LoginUser;
+import com.approval.module.system.entity.User;
+import com.approval.module.system.mapper.UserMapper;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 登录用户短时缓存
+ * <p>
+ * Token 声明只作为查找键，每次请求的用户状态、部门、岗位都从本缓存取得（按用户ID缓存一小段时间）；
+ * 旧版 Token 未携带用户ID时先按用户名解析出用户ID。用户信息变更后事务提交时失效，并通知其它节点。
+ */
+@Component
+public class LoginUserCache {
+
+    public static final String CACHE_NAME = "login-user";
+
+    private final UserMapper userMapper;
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    private final LocalCache<Long, LoginUser> cache;
+
+    private final LocalCache<String, Long> usernameIds;
+
+    public LoginUserCache(UserMapper userMapper, CacheInvalidationBus cacheInvalidationBus,
+            @Value("${jwt.user-cache-size:5000}") int cacheSize,
+            @Value("${jwt.user-cache-ttl:60000}") long cacheTtl) {
+        this.userMapper = userMapper;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.cache = new LocalCache<>(cacheSize, cacheTtl);
+        this.usernameIds = new LocalCache<>(cacheSize, cacheTtl);
+        cacheInvalidationBus.register(CACHE_NAME, this::onInvalidate);
+    }
+
+    /**
+     * 按用户ID获取登录用户，不存在（含已删除）返回 null
+     */
+    public LoginUser getByUserId(Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        return cache.get(userId, this::load);
+    }
+
+    /**
+     * 按用户名获取登录用户（旧版 Token），不存在返回 null
+     */
+    public LoginUser getByUsername(String username) {
+        if (username == null) {
+            return null;
+        }
+        Long userId = usernameIds.get(username, this::loadUserId);
+        return getByUserId(userId);
+    }
+
+    /**
+     * 用户信息变更后调用（事务提交后生效，并通知其它节点）
+     */
+    public void evict(Long userId) {
+        if (userId != null) {
+            cacheInvalidationBus.invalidate(CACHE_NAME, String.valueOf(userId));
+        }
+    }
+
+    private LoginUser load(Long userId) {
+        User user = userMapper.selectById(userId);
+        return user != null ? toLoginUser(user) : null;
+    }
+
+    private Long loadUserId(String username) {
+        User user = userMapper.selectOne(
+                new LambdaQueryWrapper<User>().eq(User::getUsername, username));
+        return user != null ? user.getUserId() : null;
+    }
+
+    private void onInvalidate(String key) {
+        if (key == null) {
+            cache.clear();
+            usernameIds.clear();
+            return;
+        }
+        LoginUser removed = cache.get(Long.valueOf(key));
+        cache.remove(Long.valueOf(key));
+        if (removed != null) {
+            usernameIds.remove(removed.getUsername());
+        }
+    }
+
+    public static LoginUser toLoginUser(User user) {
+        return LoginUser.builder()
+                .userId(user.getUserId())
+                .username(user.getUsername())
+                .deptId(user.getDeptId())
+                .postId(user.getPostId())
+                .status(user.getStatus())
+                .build();
+    }
+}
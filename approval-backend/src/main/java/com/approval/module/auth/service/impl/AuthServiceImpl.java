@@ -2,14 +2,15 @@ package com.approval.module.auth.service.impl;
 
 import com.approval.common.exception.BusinessException;
 import com.approval.common.utils.JwtUtils;
+import com.approval.module.auth.cache.LoginUserCache;
 import com.approval.module.auth.dto.LoginDto;
 import com.approval.module.auth.dto.RegisterDto;
 import com.approval.module.auth.service.IAuthService;
 import com.approval.module.auth.vo.LoginVo;
+import com.approval.module.system.cache.PostPermissionCache;
 import com.approval.module.system.entity.Dept;
 import com.approval.module.system.entity.Post;
 import com.approval.module.system.entity.User;
-import com.approval.module.system.mapper.PermissionMapper;
 import com.approval.module.system.mapper.PostMapper;
 import com.approval.module.system.mapper.DeptMapper;
 import com.approval.module.system.mapper.UserMapper;
@@ -19,6 +20,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -32,7 +34,7 @@ public class AuthServiceImpl implements IAuthService {
     private final UserMapper userMapper;
     private final PostMapper postMapper;
     private final DeptMapper deptMapper;
-    private final PermissionMapper permissionMapper;
+    private final PostPermissionCache postPermissionCache;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtils jwtUtils;
 
@@ -66,7 +68,7 @@ public class AuthServiceImpl implements IAuthService {
         userMapper.insert(user);
 
         // 4. 生成Token并返回（注册成功后自动登录）
-        String token = jwtUtils.generateToken(user.getUsername());
+        String token = jwtUtils.generateToken(LoginUserCache.toLoginUser(user));
 
         LoginVo loginVo = new LoginVo();
         loginVo.setToken(token);
@@ -97,7 +99,7 @@ public class AuthServiceImpl implements IAuthService {
         }
 
         // 4. 生成Token
-        String token = jwtUtils.generateToken(user.getUsername());
+        String token = jwtUtils.generateToken(LoginUserCache.toLoginUser(user));
 
         LoginVo loginVo = new LoginVo();
         loginVo.setToken(token);
@@ -145,10 +147,8 @@ public class AuthServiceImpl implements IAuthService {
             }
         }
 
-        List<String> permissions = user.getPostId() != null
-                ? permissionMapper.selectPermissionCodesByPostId(user.getPostId())
-                : Collections.emptyList();
-        if (permissions == null || permissions.isEmpty()) {
+        List<String> permissions = new ArrayList<>(postPermissionCache.getPermissionCodes(user.getPostId()));
+        if (permissions.isEmpty()) {
             permissions = Collections.singletonList("BASIC_APPLICANT");
         }
         userInfo.setPermissions(permissions);
@@ -0,0 +1,225 @@
+package com.approval.module.system.cache;
+
+import com.approval.common.cache.CacheInvalidationBus;
+import com.approval.module.system.entity.Dept;
+import com.approval.module.system.mapper.DeptMapper;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 部门组织树缓存
+ * <p>
+ * 一次载入全部部门，构建 ID 索引、子部门列表和祖先路径组成的不可变快照，整体原子替换；
+ * 部门新增、修改、删除后失效，下次访问时重新构建。返回的部门对象为快照内共享实例，调用方只读不改。
+ */
+@Component
+public class DeptTreeCache {
+
+    public static final String CACHE_NAME = "dept-tree";
+
+    private static final Comparator<Dept> DEPT_ORDER = Comparator
+            .comparing((Dept dept) -> dept.getOrderNum() != null ? dept.getOrderNum() : 0)
+            .thenComparing(Dept::getDeptId);
+
+    private final DeptMapper deptMapper;
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile Snapshot snapshot;
+
+    public DeptTreeCache(DeptMapper deptMapper, CacheInvalidationBus cacheInvalidationBus) {
+        this.deptMapper = deptMapper;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        cacheInvalidationBus.register(CACHE_NAME, key -> reset());
+    }
+
+    /**
+     * 获取部门，不存在返回 null
+     */
+    public Dept getDept(Long deptId) {
+        return deptId == null ? null : current().nodes.get(deptId);
+    }
+
+    public boolean exists(Long deptId) {
+        return getDept(deptId) != null;
+    }
+
+    /**
+     * 获取部门名称，不存在返回 null
+     */
+    public String getDeptName(Long deptId) {
+        Dept dept = getDept(deptId);
+        return dept != null ? dept.getDeptName() : null;
+    }
+
+    /**
+     * 全部部门（按排序号）
+     */
+    public List<Dept> listDepts() {
+        return current().ordered;
+    }
+
+    /**
+     * 直接下级部门ID（按排序号）
+     */
+    public List<Long> getChildIds(Long deptId) {
+        return current().children.getOrDefault(deptId, Collections.emptyList());
+    }
+
+    public boolean hasChildren(Long deptId) {
+        return !getChildIds(deptId).isEmpty();
+    }
+
+    /**
+     * 祖先部门ID，从根部门到直接上级
+     */
+    public List<Long> getAncestorIds(Long deptId) {
+        return current().ancestors.getOrDefault(deptId, Collections.emptyList());
+    }
+
+    /**
+     * 部门及其全部下级部门ID
+     */
+    public Set<Long> getSubtreeIds(Long deptId) {
+        Snapshot current = current();
+        if (deptId == null || !current.nodes.containsKey(deptId)) {
+            return Collections.emptySet();
+        }
+        Set<Long> result = new LinkedHashSet<>();
+        List<Long> queue = new ArrayList<>();
+        queue.add(deptId);
+        for (int i = 0; i < queue.size(); i++) {
+            Long id = queue.get(i);
+            if (result.add(id)) {
+                queue.addAll(current.children.getOrDefault(id, Collections.emptyList()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * deptId 是否为 ancestorId 本身或其下级部门
+     */
+    public boolean isSelfOrDescendant(Long ancestorId, Long deptId) {
+        if (ancestorId == null || deptId == null) {
+            return false;
+        }
+        return ancestorId.equals(deptId) || getAncestorIds(deptId).contains(ancestorId);
+    }
+
+    /**
+     * 当前快照版本，每次重新构建递增
+     */
+    public long getVersion() {
+        return current().version;
+    }
+
+    /**
+     * 部门变更后调用（事务提交后生效，并通知其它节点）
+     */
+    public void invalidate() {
+        cacheInvalidationBus.invalidate(CACHE_NAME);
+    }
+
+    private void reset() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot != null) {
+                return snapshot;
+            }
+            long loadingGeneration = generation.get();
+            Snapshot loaded = load(loadingGeneration);
+            // 载入期间发生失效则不发布本次结果，下次访问重新载入
+            if (generation.get() == loadingGeneration) {
+                snapshot = loaded;
+            }
+            return loaded;
+        }
+    }
+
+    private Snapshot load(long version) {
+        List<Dept> depts = new ArrayList<>(deptMapper.selectList(new LambdaQueryWrapper<Dept>()));
+        depts.sort(DEPT_ORDER);
+
+        Map<Long, Dept> nodes = new HashMap<>(depts.size() * 2);
+        for (Dept dept : depts) {
+            nodes.put(dept.getDeptId(), dept);
+        }
+
+        Map<Long, List<Long>> children = new HashMap<>();
+        for (Dept dept : depts) {
+            if (dept.getParentId() != null && nodes.containsKey(dept.getParentId())) {
+                children.computeIfAbsent(dept.getParentId(), id -> new ArrayList<>()).add(dept.getDeptId());
+            }
+        }
+        Map<Long, List<Long>> frozenChildren = new HashMap<>(children.size() * 2);
+        children.forEach((id, ids) -> frozenChildren.put(id, Collections.unmodifiableList(ids)));
+
+        Map<Long, List<Long>> ancestors = new HashMap<>(depts.size() * 2);
+        for (Dept dept : depts) {
+            ancestors.put(dept.getDeptId(), Collections.unmodifiableList(resolveAncestors(dept, nodes)));
+        }
+
+        return new Snapshot(version, Collections.unmodifiableMap(nodes), Collections.unmodifiableMap(frozenChildren),
+                Collections.unmodifiableMap(ancestors), Collections.unmodifiableList(depts));
+    }
+
+    /**
+     * 沿父部门向上查找祖先，遇到脏数据形成的环时截断
+     */
+    private List<Long> resolveAncestors(Dept dept, Map<Long, Dept> nodes) {
+        List<Long> path = new ArrayList<>();
+        Set<Long> visited = new HashSet<>();
+        visited.add(dept.getDeptId());
+        Dept parent = nodes.get(dept.getParentId());
+        while (parent != null && visited.add(parent.getDeptId())) {
+            path.add(parent.getDeptId());
+            parent = nodes.get(parent.getParentId());
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    private static final class Snapshot {
+
+        private final long version;
+
+        private final Map<Long, Dept> nodes;
+
+        private final Map<Long, List<Long>> children;
+
+        private final Map<Long, List<Long>> ancestors;
+
+        private final List<Dept> ordered;
+
+        private Snapshot(long version, Map<Long, Dept> nodes, Map<Long, List<Long>> children,
+                Map<Long, List<Long>> ancestors, List<Dept> ordered) {
+            this.version = version;
+            this.nodes = nodes;
+            this.children = children;
+            this.ancestors = ancestors;
+            this.ordered = ordered;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.approval.module.system.cache;
+
+import com.approval.common.cache.CacheInvalidationBus;
+import com.approval.module.system.mapper.PermissionMapper;
+import com.approval.module.system.vo.PostPermissionVo;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 岗位权限编码缓存
+ * <p>
+ * 岗位数量很少，一次载入全部岗位的权限编码形成不可变快照，整体原子替换；
+ * 岗位权限变更后失效，下次访问时重新载入。
+ */
+@Component
+public class PostPermissionCache {
+
+    public static final String CACHE_NAME = "post-permission";
+
+    private final PermissionMapper permissionMapper;
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile Map<Long, Set<String>> snapshot;
+
+    public PostPermissionCache(PermissionMapper permissionMapper, CacheInvalidationBus cacheInvalidationBus) {
+        this.permissionMapper = permissionMapper;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        cacheInvalidationBus.register(CACHE_NAME, key -> reset());
+    }
+
+    /**
+     * 获取岗位的权限编码（不可变集合），岗位为空或无权限时返回空集合
+     */
+    public Set<String> getPermissionCodes(Long postId) {
+        if (postId == null) {
+            return Collections.emptySet();
+        }
+        return current().getOrDefault(postId, Collections.emptySet());
+    }
+
+    public boolean hasPermission(Long postId, String permissionCode) {
+        return getPermissionCodes(postId).contains(permissionCode);
+    }
+
+    /**
+     * 岗位权限变更后调用（事务提交后生效，并通知其它节点）
+     */
+    public void invalidate() {
+        cacheInvalidationBus.invalidate(CACHE_NAME);
+    }
+
+    private void reset() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    private Map<Long, Set<String>> current() {
+        Map<Long, Set<String>> current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot != null) {
+                return snapshot;
+            }
+            long loadingGeneration = generation.get();
+            Map<Long, Set<String>> loaded = load();
+            // 载入期间发生失效则不发布本次结果，下次访问重新载入
+            if (generation.get() == loadingGeneration) {
+                snapshot = loaded;
+            }
+            return loaded;
+        }
+    }
+
+    private Map<Long, Set<String>> load() {
+        Map<Long, Set<String>> grouped = new HashMap<>();
+        for (PostPermissionVo row : permissionMapper.selectAllPostPermissions()) {
+            grouped.computeIfAbsent(row.getPostId(), id -> new LinkedHashSet<>()).add(row.getPermissionCode());
+        }
+        Map<Long, Set<String>> result = new HashMap<>(grouped.size());
+        grouped.forEach((postId, codes) -> result.put(postId, Collections.unmodifiableSet(codes)));
+        return Collections.unmodifiableMap(result);
+    }
+}
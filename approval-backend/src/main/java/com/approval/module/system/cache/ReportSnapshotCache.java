@@ -0,0 +1,119 @@
+package com.approval.module.system.cache;
+
+import com.approval.common.cache.CacheInvalidationBus;
+import com.approval.common.cache.LocalCache;
+import com.approval.module.system.mapper.ReportSnapshotMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 已结束月份报表快照
+ * <p>
+ * 月份已过且该月提交的申请全部办结后，申请统计部分不再变化：首次计算后按
+ * (报表类型, 月份, 部门) 持久化到 sys_report_snapshot，本节点再保留一份内存副本。
+ * 人数、岗位分布取自当前人员，不进入快照。
+ * 手工重建月度汇总时清除对应月份的快照；部门报表按当前成员取数，
+ * 部门调整上级、用户调整部门或删除用户时清除全部快照。
+ */
+@Slf4j
+@Component
+public class ReportSnapshotCache {
+
+    public static final String CACHE_NAME = "report-snapshot";
+
+    private static final String KEY_SEPARATOR = "|";
+
+    private final ReportSnapshotMapper reportSnapshotMapper;
+
+    private final ObjectMapper objectMapper;
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    private final LocalCache<String, Object> cache;
+
+    public ReportSnapshotCache(ReportSnapshotMapper reportSnapshotMapper, ObjectMapper objectMapper,
+            CacheInvalidationBus cacheInvalidationBus,
+            @Value("${approval.cache.report-snapshot-size:500}") int cacheSize,
+            @Value("${approval.cache.report-snapshot-ttl:3600000}") long cacheTtl) {
+        this.reportSnapshotMapper = reportSnapshotMapper;
+        this.objectMapper = objectMapper;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.cache = new LocalCache<>(cacheSize, cacheTtl);
+        cacheInvalidationBus.register(CACHE_NAME, this::onInvalidate);
+    }
+
+    /**
+     * 读取快照，不存在返回 null
+     */
+    public <T> T get(String reportType, String month, Long deptId, Class<T> type) {
+        String key = buildKey(reportType, month, deptId);
+        Object cached = cache.get(key);
+        if (type.isInstance(cached)) {
+            return type.cast(cached);
+        }
+
+        T value = read(reportType, month, normalizeDeptId(deptId), type);
+        if (value != null) {
+            cache.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * 保存快照，仅应在月份已结束且无未办结申请时调用
+     */
+    public void put(String reportType, String month, Long deptId, Object value) {
+        if (value == null) {
+            return;
+        }
+        write(reportType, month, normalizeDeptId(deptId), value);
+        cache.put(buildKey(reportType, month, deptId), value);
+    }
+
+    /**
+     * 清除快照，month 为空时清除全部
+     * <p>
+     * 内存副本数量很少，事务提交后各节点直接整体清空。
+     */
+    public void evict(String month) {
+        reportSnapshotMapper.deleteByMonth(month);
+        cacheInvalidationBus.invalidate(CACHE_NAME);
+    }
+
+    private String buildKey(String reportType, String month, Long deptId) {
+        return reportType + KEY_SEPARATOR + month + KEY_SEPARATOR + normalizeDeptId(deptId);
+    }
+
+    private long normalizeDeptId(Long deptId) {
+        return deptId != null ? deptId : 0L;
+    }
+
+    private <T> T read(String reportType, String month, long deptId, Class<T> type) {
+        String content = reportSnapshotMapper.selectContent(reportType, month, deptId);
+        if (content == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(content, type);
+        } catch (JsonProcessingException e) {
+            // 结构变化导致旧快照无法解析时重新计算
+            log.warn("报表快照解析失败，重新计算: {} {} {}", reportType, month, deptId);
+            return null;
+        }
+    }
+
+    private void write(String reportType, String month, long deptId, Object value) {
+        try {
+            reportSnapshotMapper.upsert(reportType, month, deptId, objectMapper.writeValueAsString(value));
+        } catch (JsonProcessingException e) {
+            log.warn("报表快照序列化失败: {} {} {}", reportType, month, deptId, e);
+        }
+    }
+
+    private void onInvalidate(String key) {
+        cache.clear();
+    }
+}
@@ -194,11 +194,19 @@ public class AdminController {
     @GetMapping("/reports/dept-detail")
     public Result<ReportDeptDetailVo> getDeptReportDetail(
             @RequestParam Long deptId,
-            @RequestParam(required = false) String month) {
-        ReportDeptDetailVo detail = adminService.getDeptReportDetail(deptId, month);
+            @RequestParam(required = false) String month,
+            @RequestParam(defaultValue = "false") Boolean includeChildren) {
+        ReportDeptDetailVo detail = adminService.getDeptReportDetail(deptId, month, Boolean.TRUE.equals(includeChildren));
         return Result.success(detail);
     }
 
+    @Operation(summary = "重建报表统计（修正数据后使用，不传月份则重建全部）")
+    @PostMapping("/reports/rebuild")
+    public Result<Void> rebuildReportStats(@RequestParam(required = false) String month) {
+        adminService.rebuildReportStats(month);
+        return Result.success();
+    }
+
     private Long getUserIdFromToken(String token) {
         String actualToken = token.replace("Bearer ", "");
         String username = jwtUtils.getUsernameFromToken(actualToken);
@@ -0,0 +1,41 @@
+package com.approval.module.system.job;
+
+import com.approval.module.system.mapper.DeptClosureMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 部门闭包表重建任务
+ * <p>
+ * 开启 approval.backfill.dept-closure 后在启动时按 sys_dept.parent_id 全量重建 sys_dept_closure，
+ * 用于初次升级或闭包表与部门树不一致时修复。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "approval.backfill.dept-closure", havingValue = "true")
+public class DeptClosureRebuildRunner implements ApplicationRunner {
+
+    private final DeptClosureMapper deptClosureMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public DeptClosureRebuildRunner(DeptClosureMapper deptClosureMapper,
+            PlatformTransactionManager transactionManager) {
+        this.deptClosureMapper = deptClosureMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Integer rows = transactionTemplate.execute(status -> {
+            deptClosureMapper.deleteAll();
+            return deptClosureMapper.rebuildAll();
+        });
+        log.info("部门闭包表重建完成，共 {} 行", rows);
+    }
+}
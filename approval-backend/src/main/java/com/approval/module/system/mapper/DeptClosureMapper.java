@@ -0,0 +1,71 @@
+package com.approval.module.system.mapper;
+
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * 部门闭包表Mapper
+ */
+@Mapper
+public interface DeptClosureMapper {
+
+    /**
+     * 子树查询片段：ancestorId 自身及全部下级部门ID
+     */
+    String SUBTREE_SQL = "SELECT descendant_id FROM sys_dept_closure WHERE ancestor_id = ";
+
+    /**
+     * 条件构造器使用的子树过滤条件，部门ID以 {0} 参数绑定：wrapper.apply(DEPT_IN_SUBTREE, deptId)
+     */
+    String DEPT_IN_SUBTREE = "dept_id IN (" + SUBTREE_SQL + "{0})";
+
+    /**
+     * 新增部门：继承父部门的全部祖先关系，并加入自身关系
+     */
+    @Insert("INSERT INTO sys_dept_closure (ancestor_id, descendant_id, depth) " +
+            "SELECT ancestor_id, #{deptId}, depth + 1 FROM sys_dept_closure WHERE descendant_id = #{parentId} " +
+            "UNION ALL SELECT #{deptId}, #{deptId}, 0")
+    int insertNode(@Param("deptId") Long deptId, @Param("parentId") Long parentId);
+
+    /**
+     * 移动子树第一步：断开子树与原祖先之间的关系（子树内部关系保留）
+     */
+    @Delete("DELETE c FROM sys_dept_closure c " +
+            "JOIN sys_dept_closure sub ON sub.descendant_id = c.descendant_id AND sub.ancestor_id = #{deptId} " +
+            "JOIN sys_dept_closure anc ON anc.ancestor_id = c.ancestor_id AND anc.descendant_id = #{deptId} " +
+            "AND anc.depth > 0")
+    int detachSubtree(@Param("deptId") Long deptId);
+
+    /**
+     * 移动子树第二步：把子树挂到新父部门下
+     */
+    @Insert("INSERT INTO sys_dept_closure (ancestor_id, descendant_id, depth) " +
+            "SELECT p.ancestor_id, sub.descendant_id, p.depth + sub.depth + 1 " +
+            "FROM sys_dept_closure p JOIN sys_dept_closure sub ON sub.ancestor_id = #{deptId} " +
+            "WHERE p.descendant_id = #{parentId}")
+    int attachSubtree(@Param("deptId") Long deptId, @Param("parentId") Long parentId);
+
+    /**
+     * 删除部门（只允许删除没有下级的部门）
+     */
+    @Delete("DELETE FROM sys_dept_closure WHERE descendant_id = #{deptId} OR ancestor_id = #{deptId}")
+    int deleteNode(@Param("deptId") Long deptId);
+
+    @Delete("DELETE FROM sys_dept_closure")
+    int deleteAll();
+
+    /**
+     * 按部门树（parent_id）全量重建
+     */
+    @Insert("INSERT INTO sys_dept_closure (ancestor_id, descendant_id, depth) " +
+            "WITH RECURSIVE tree AS (" +
+            "SELECT dept_id AS ancestor_id, dept_id AS descendant_id, 0 AS depth FROM sys_dept WHERE del_flag = 0 " +
+            "UNION ALL " +
+            "SELECT t.ancestor_id, d.dept_id, t.depth + 1 " +
+            "FROM tree t JOIN sys_dept d ON d.parent_id = t.descendant_id AND d.del_flag = 0 " +
+            "WHERE t.depth < 64) " +
+            "SELECT ancestor_id, descendant_id, depth FROM tree")
+    int rebuildAll();
+}
@@ -0,0 +1,64 @@
+package com.approval.module.system.mapper;
+
+import com.approval.module.system.vo.report.ReportAppStatRowVo;
+import com.approval.module.system.vo.report.ReportCountRowVo;
+import com.approval.module.system.vo.report.ReportMemberStatRowVo;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 报表聚合查询Mapper
+ */
+@Mapper
+public interface ReportMapper {
+
+    /**
+     * 启用用户按部门计数
+     */
+    @Select("SELECT dept_id AS group_id, COUNT(*) AS user_count FROM sys_user " +
+            "WHERE status = 1 AND del_flag = 0 AND dept_id IS NOT NULL GROUP BY dept_id")
+    List<ReportCountRowVo> selectActiveUserCountByDept();
+
+    /**
+     * 启用用户按岗位计数
+     */
+    @Select("SELECT post_id AS group_id, COUNT(*) AS user_count FROM sys_user " +
+            "WHERE status = 1 AND del_flag = 0 AND post_id IS NOT NULL GROUP BY post_id")
+    List<ReportCountRowVo> selectActiveUserCountByPost();
+
+    /**
+     * 指定月份提交的申请按部门、类型汇总（读取月度汇总表，未分配部门的申请部门为空）
+     */
+    @Select("SELECT NULLIF(dept_id, 0) AS dept_id, app_type, SUM(app_count) AS total, " +
+            "SUM(approved_count) AS approved " +
+            "FROM bpm_monthly_applicant_stat WHERE stat_month = #{statMonth} " +
+            "GROUP BY dept_id, app_type")
+    List<ReportAppStatRowVo> selectAppStatsByDeptAndType(@Param("statMonth") String statMonth);
+
+    /**
+     * 指定月份部门（或部门子树）内某类申请按申请人汇总
+     */
+    @Select("<script>" +
+            "SELECT applicant_id, app_type, SUM(app_count) AS times, SUM(total_value) AS total_value " +
+            "FROM bpm_monthly_applicant_stat WHERE stat_month = #{statMonth} AND app_type = #{appType} " +
+            "<choose>" +
+            "<when test='includeChildren'>AND dept_id IN (" + DeptClosureMapper.SUBTREE_SQL + "#{deptId}) </when>" +
+            "<otherwise>AND dept_id = #{deptId} </otherwise>" +
+            "</choose>" +
+            "GROUP BY applicant_id, app_type" +
+            "</script>")
+    List<ReportMemberStatRowVo> selectMemberStats(@Param("statMonth") String statMonth,
+            @Param("deptId") Long deptId, @Param("includeChildren") boolean includeChildren,
+            @Param("appType") String appType);
+
+    /**
+     * 时间段内提交且仍未办结的申请数量
+     */
+    @Select("SELECT COUNT(*) FROM bpm_application " +
+            "WHERE del_flag = 0 AND status IN (1, 2) AND submit_time >= #{start} AND submit_time < #{end}")
+    long countPendingApplications(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+}
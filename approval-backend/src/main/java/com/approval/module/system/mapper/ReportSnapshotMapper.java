@@ -0,0 +1,37 @@
+package com.approval.module.system.mapper;
+
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+/**
+ * 报表快照Mapper
+ */
+@Mapper
+public interface ReportSnapshotMapper {
+
+    @Select("SELECT content FROM sys_report_snapshot " +
+            "WHERE report_type = #{reportType} AND stat_month = #{statMonth} AND dept_id = #{deptId}")
+    String selectContent(@Param("reportType") String reportType, @Param("statMonth") String statMonth,
+            @Param("deptId") Long deptId);
+
+    /**
+     * 写入快照（已存在则覆盖）
+     */
+    @Insert("INSERT INTO sys_report_snapshot (report_type, stat_month, dept_id, content, create_time) " +
+            "VALUES (#{reportType}, #{statMonth}, #{deptId}, #{content}, NOW()) " +
+            "ON DUPLICATE KEY UPDATE content = VALUES(content), create_time = NOW()")
+    int upsert(@Param("reportType") String reportType, @Param("statMonth") String statMonth,
+            @Param("deptId") Long deptId, @Param("content") String content);
+
+    /**
+     * 删除快照，month 为空时删除全部
+     */
+    @Delete("<script>" +
+            "DELETE FROM sys_report_snapshot" +
+            "<if test='statMonth != null'> WHERE stat_month = #{statMonth}</if>" +
+            "</script>")
+    int deleteByMonth(@Param("statMonth") String statMonth);
+}
@@ -0,0 +1,23 @@
+package com.approval.module.system.mapper;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+/**
+ * 序列号段Mapper
+ */
+@Mapper
+public interface SequenceMapper {
+
+    @Select("SELECT max_value FROM sys_sequence WHERE seq_key = #{seqKey}")
+    Long selectMaxValue(@Param("seqKey") String seqKey);
+
+    @Insert("INSERT IGNORE INTO sys_sequence (seq_key, max_value) VALUES (#{seqKey}, #{initValue})")
+    int insertIgnore(@Param("seqKey") String seqKey, @Param("initValue") Long initValue);
+
+    @Update("UPDATE sys_sequence SET max_value = max_value + #{step} WHERE seq_key = #{seqKey}")
+    int increase(@Param("seqKey") String seqKey, @Param("step") Integer step);
+}
@@ -54,5 +54,10 @@ public interface IAdminService {
 
     ReportSummaryVo getReportSummary(String month);
 
-    ReportDeptDetailVo getDeptReportDetail(Long deptId, String month);
+    ReportDeptDetailVo getDeptReportDetail(Long deptId, String month, boolean includeChildren);
+
+    /**
+     * 按月重建申请人月度汇总并清除报表快照，month 为空时重建全部月份
+     */
+    void rebuildReportStats(String month);
 }
@@ -0,0 +1,26 @@
+package com.approval.module.system.service;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 序列号服务
+ * <p>
+ * 应在业务事务之外调用：号段续租使用独立事务，在业务事务内调用会同时占用两个数据库连接，
+ * 并发较高时可能耗尽连接池。
+ */
+public interface ISequenceService {
+
+    /**
+     * 获取下一个序列值
+     *
+     * @param name   序列名称，如 AP
+     * @param period 周期，如 20260116；周期变化时序列从头开始
+     * @param seed   周期内首次分配时的起始值（已使用的最大值）
+     */
+    long nextValue(String name, String period, LongSupplier seed);
+
+    /**
+     * 一次获取多个连续分配的序列值（参数同 nextValue）
+     */
+    long[] nextValues(String name, String period, int count, LongSupplier seed);
+}
@@ -1,12 +1,12 @@
 package com.approval.module.system.service.impl;
 
 import com.approval.common.exception.BusinessException;
-import com.approval.module.approval.entity.Application;
-import com.approval.module.approval.entity.LeaveApplication;
-import com.approval.module.approval.entity.ReimburseApplication;
-import com.approval.module.approval.mapper.ApplicationMapper;
-import com.approval.module.approval.mapper.LeaveApplicationMapper;
-import com.approval.module.approval.mapper.ReimburseApplicationMapper;
+import com.approval.module.approval.cache.ApproverEligibilityCache;
+import com.approval.module.approval.mapper.MonthlyApplicantStatMapper;
+import com.approval.module.auth.cache.LoginUserCache;
+import com.approval.module.system.cache.DeptTreeCache;
+import com.approval.module.system.cache.PostPermissionCache;
+import com.approval.module.system.cache.ReportSnapshotCache;
 import com.approval.module.system.dto.AssignPostDto;
 import com.approval.module.system.dto.DeptDto;
 import com.approval.module.system.dto.PostDto;
@@ -15,23 +15,34 @@ import com.approval.module.system.entity.Dept;
 import com.approval.module.system.entity.Permission;
 import com.approval.module.system.entity.Post;
 import com.approval.module.system.entity.User;
+import com.approval.module.system.mapper.DeptClosureMapper;
 import com.approval.module.system.mapper.DeptMapper;
 import com.approval.module.system.mapper.PermissionMapper;
 import com.approval.module.system.mapper.PostMapper;
+import com.approval.module.system.mapper.ReportMapper;
 import com.approval.module.system.mapper.UserMapper;
 import com.approval.module.system.service.IAdminService;
 import com.approval.module.system.vo.DeptVo;
 import com.approval.module.system.vo.PermissionVo;
+import com.approval.module.system.vo.PostPermissionVo;
 import com.approval.module.system.vo.PostVo;
 import com.approval.module.system.vo.UserVo;
+import com.approval.module.system.vo.report.ReportAppStatRowVo;
+import com.approval.module.system.vo.report.ReportCountRowVo;
 import com.approval.module.system.vo.report.ReportDeptDetailVo;
+import com.approval.module.system.vo.report.ReportMemberStatRowVo;
 import com.approval.module.system.vo.report.ReportSummaryVo;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Comparator;
 import java.math.BigDecimal;
@@ -42,13 +53,20 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AdminServiceImpl implements IAdminService {
@@ -57,10 +75,27 @@ public class AdminServiceImpl implements IAdminService {
     private final DeptMapper deptMapper;
     private final PostMapper postMapper;
     private final PermissionMapper permissionMapper;
-    private final ApplicationMapper applicationMapper;
-    private final LeaveApplicationMapper leaveApplicationMapper;
-    private final ReimburseApplicationMapper reimburseApplicationMapper;
     private final PasswordEncoder passwordEncoder;
+    private final LoginUserCache loginUserCache;
+    private final ApproverEligibilityCache approverEligibilityCache;
+    private final PostPermissionCache postPermissionCache;
+    private final DeptTreeCache deptTreeCache;
+    private final DeptClosureMapper deptClosureMapper;
+    private final ReportMapper reportMapper;
+    private final MonthlyApplicantStatMapper monthlyApplicantStatMapper;
+    private final ReportSnapshotCache reportSnapshotCache;
+    private final ThreadPoolTaskExecutor reportExecutor;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${approval.report.section-timeout:5000}")
+    private long reportSectionTimeout;
+
+    private static final String REPORT_SUMMARY = "summary";
+    private static final String REPORT_DEPT_DETAIL = "dept-detail";
+    private static final String REPORT_DEPT_SUBTREE = "dept-subtree";
+    private static final String SECTION_POST = "deptPostStats";
+    private static final String SECTION_LEAVE = "leaveDetails";
+    private static final String SECTION_REIMBURSE = "reimburseDetails";
 
     @Override
     public Page<UserVo> getUserList(Integer pageNum, Integer pageSize, String username, String realName, Long deptId, Integer status) {
@@ -76,10 +111,7 @@ public class AdminServiceImpl implements IAdminService {
         Page<User> userPage = userMapper.selectPage(page, wrapper);
         Page<UserVo> voPage = new Page<>(userPage.getCurrent(), userPage.getSize(), userPage.getTotal());
 
-        voPage.setRecords(userPage.getRecords().stream().map(user -> {
-            UserVo vo = convertToUserVo(user);
-            return vo;
-        }).collect(Collectors.toList()));
+        voPage.setRecords(convertToUserVos(userPage.getRecords()));
 
         return voPage;
     }
@@ -90,7 +122,7 @@ public class AdminServiceImpl implements IAdminService {
         if (user == null) {
             throw new BusinessException(404, "用户不存在");
         }
-        return convertToUserVo(user);
+        return convertToUserVos(Collections.singletonList(user)).get(0);
     }
 
     @Override
@@ -114,6 +146,7 @@ public class AdminServiceImpl implements IAdminService {
         user.setStatus(dto.getStatus() != null ? dto.getStatus() : 1);
 
         userMapper.insert(user);
+        approverEligibilityCache.evict(user.getDeptId());
     }
 
     @Override
@@ -136,6 +169,8 @@ public class AdminServiceImpl implements IAdminService {
             }
         }
 
+        loginUserCache.evict(user.getUserId());
+        Long oldDeptId = user.getDeptId();
         user.setUsername(dto.getUsername());
         if (dto.getPassword() != null && !dto.getPassword().isEmpty()) {
             user.setPassword(passwordEncoder.encode(dto.getPassword()));
@@ -149,6 +184,8 @@ public class AdminServiceImpl implements IAdminService {
         user.setStatus(dto.getStatus());
 
         userMapper.updateById(user);
+        approverEligibilityCache.evict(oldDeptId, user.getDeptId());
+        evictReportSnapshotsOnMove(oldDeptId, user.getDeptId());
     }
 
     @Override
@@ -164,6 +201,10 @@ public class AdminServiceImpl implements IAdminService {
         }
 
         userMapper.deleteById(userId);
+        loginUserCache.evict(user.getUserId());
+        approverEligibilityCache.evict(user.getDeptId());
+        // 部门报表按当前成员取数，成员减少后快照失效
+        reportSnapshotCache.evict(null);
     }
 
     @Override
@@ -183,10 +224,7 @@ public class AdminServiceImpl implements IAdminService {
             org.springframework.beans.BeanUtils.copyProperties(dept, vo);
 
             if (dept.getParentId() != null && dept.getParentId() != 0) {
-                Dept parentDept = deptMapper.selectById(dept.getParentId());
-                if (parentDept != null) {
-                    vo.setParentName(parentDept.getDeptName());
-                }
+                vo.setParentName(deptTreeCache.getDeptName(dept.getParentId()));
             }
 
             return vo;
@@ -206,10 +244,7 @@ public class AdminServiceImpl implements IAdminService {
         org.springframework.beans.BeanUtils.copyProperties(dept, vo);
 
         if (dept.getParentId() != null && dept.getParentId() != 0) {
-            Dept parentDept = deptMapper.selectById(dept.getParentId());
-            if (parentDept != null) {
-                vo.setParentName(parentDept.getDeptName());
-            }
+            vo.setParentName(deptTreeCache.getDeptName(dept.getParentId()));
         }
 
         return vo;
@@ -218,11 +253,8 @@ public class AdminServiceImpl implements IAdminService {
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void createDept(DeptDto dto) {
-        if (dto.getParentId() != null && dto.getParentId() != 0) {
-            Dept parentDept = deptMapper.selectById(dto.getParentId());
-            if (parentDept == null) {
-                throw new BusinessException("父部门不存在");
-            }
+        if (dto.getParentId() != null && dto.getParentId() != 0 && !deptTreeCache.exists(dto.getParentId())) {
+            throw new BusinessException("父部门不存在");
         }
 
         Dept dept = new Dept();
@@ -235,6 +267,8 @@ public class AdminServiceImpl implements IAdminService {
         dept.setStatus(dto.getStatus() != null ? dto.getStatus() : 1);
 
         deptMapper.insert(dept);
+        deptClosureMapper.insertNode(dept.getDeptId(), dept.getParentId());
+        deptTreeCache.invalidate();
     }
 
     @Override
@@ -254,12 +288,17 @@ public class AdminServiceImpl implements IAdminService {
                 throw new BusinessException("父部门不能是自己");
             }
 
-            Dept parentDept = deptMapper.selectById(dto.getParentId());
-            if (parentDept == null) {
+            if (!deptTreeCache.exists(dto.getParentId())) {
                 throw new BusinessException("父部门不存在");
             }
+
+            // 新的父部门不能是自己的下级，否则组织树会形成环
+            if (deptTreeCache.isSelfOrDescendant(dto.getDeptId(), dto.getParentId())) {
+                throw new BusinessException("父部门不能是当前部门的下级部门");
+            }
         }
 
+        Long oldParentId = dept.getParentId();
         dept.setParentId(dto.getParentId() != null ? dto.getParentId() : 0L);
         dept.setDeptName(dto.getDeptName());
         dept.setLeader(dto.getLeader());
@@ -269,6 +308,16 @@ public class AdminServiceImpl implements IAdminService {
         dept.setStatus(dto.getStatus());
 
         deptMapper.updateById(dept);
+        if (!Objects.equals(oldParentId, dept.getParentId())) {
+            // 调整上级部门：整棵子树一起迁移
+            deptClosureMapper.detachSubtree(dept.getDeptId());
+            if (dept.getParentId() != 0) {
+                deptClosureMapper.attachSubtree(dept.getDeptId(), dept.getParentId());
+            }
+            // 上级部门的子树范围随之变化，含下级的部门报表快照失效
+            reportSnapshotCache.evict(null);
+        }
+        deptTreeCache.invalidate();
     }
 
     @Override
@@ -279,9 +328,7 @@ public class AdminServiceImpl implements IAdminService {
             throw new BusinessException(404, "部门不存在");
         }
 
-        Long childCount = deptMapper.selectCount(
-                new LambdaQueryWrapper<Dept>().eq(Dept::getParentId, deptId));
-        if (childCount > 0) {
+        if (deptTreeCache.hasChildren(deptId)) {
             throw new BusinessException("存在子部门，无法删除");
         }
 
@@ -292,6 +339,8 @@ public class AdminServiceImpl implements IAdminService {
         }
 
         deptMapper.deleteById(deptId);
+        deptClosureMapper.deleteNode(deptId);
+        deptTreeCache.invalidate();
     }
 
     @Override
@@ -306,9 +355,7 @@ public class AdminServiceImpl implements IAdminService {
         Page<Post> postPage = postMapper.selectPage(page, wrapper);
         Page<PostVo> voPage = new Page<>(postPage.getCurrent(), postPage.getSize(), postPage.getTotal());
 
-        voPage.setRecords(postPage.getRecords().stream()
-            .map(this::convertToPostVo)
-            .collect(Collectors.toList()));
+        voPage.setRecords(convertToPostVos(postPage.getRecords()));
 
         return voPage;
     }
@@ -320,7 +367,7 @@ public class AdminServiceImpl implements IAdminService {
             throw new BusinessException(404, "岗位不存在");
         }
 
-        return convertToPostVo(post);
+        return convertToPostVos(Collections.singletonList(post)).get(0);
     }
 
     @Override
@@ -387,6 +434,7 @@ public class AdminServiceImpl implements IAdminService {
 
         permissionMapper.deletePostPermissions(postId);
         postMapper.deleteById(postId);
+        postPermissionCache.invalidate();
     }
 
     @Override
@@ -402,35 +450,40 @@ public class AdminServiceImpl implements IAdminService {
             throw new BusinessException(404, "岗位不存在");
         }
 
+        Long oldDeptId = user.getDeptId();
         if (dto.getDeptId() != null) {
-            Dept dept = deptMapper.selectById(dto.getDeptId());
-            if (dept == null) {
+            if (!deptTreeCache.exists(dto.getDeptId())) {
                 throw new BusinessException(404, "部门不存在");
             }
             user.setDeptId(dto.getDeptId());
         }
         user.setPostId(dto.getPostId());
         userMapper.updateById(user);
+        loginUserCache.evict(user.getUserId());
+        approverEligibilityCache.evict(oldDeptId, user.getDeptId());
+        evictReportSnapshotsOnMove(oldDeptId, user.getDeptId());
     }
 
     @Override
     public List<DeptVo> getAllDepts() {
-        List<Dept> depts = deptMapper.selectList(
-                new LambdaQueryWrapper<Dept>().eq(Dept::getStatus, 1).orderByAsc(Dept::getOrderNum));
-        return depts.stream().map(dept -> {
-            DeptVo vo = new DeptVo();
-            org.springframework.beans.BeanUtils.copyProperties(dept, vo);
-            return vo;
-        }).collect(Collectors.toList());
+        return deptTreeCache.listDepts().stream()
+                .filter(dept -> Integer.valueOf(1).equals(dept.getStatus()))
+                .map(dept -> {
+                    DeptVo vo = new DeptVo();
+                    org.springframework.beans.BeanUtils.copyProperties(dept, vo);
+                    if (dept.getParentId() != null && dept.getParentId() != 0) {
+                        vo.setParentName(deptTreeCache.getDeptName(dept.getParentId()));
+                    }
+                    return vo;
+                })
+                .collect(Collectors.toList());
     }
 
     @Override
     public List<PostVo> getAllPosts() {
         List<Post> posts = postMapper.selectList(
                 new LambdaQueryWrapper<Post>().eq(Post::getStatus, 1).orderByAsc(Post::getPostSort));
-        return posts.stream()
-            .map(this::convertToPostVo)
-            .collect(Collectors.toList());
+        return convertToPostVos(posts);
     }
 
         @Override
@@ -445,85 +498,100 @@ public class AdminServiceImpl implements IAdminService {
         @Override
         public ReportSummaryVo getReportSummary(String month) {
         YearMonth yearMonth = resolveYearMonth(month);
-        LocalDateTime start = yearMonth.atDay(1).atStartOfDay();
-        LocalDateTime end = yearMonth.plusMonths(1).atDay(1).atStartOfDay();
+        String statMonth = yearMonth.toString();
+
+        // 快照只保存来自月度汇总表的申请统计；人数分布反映当前人员，每次实时计算
+        ReportSummaryVo appStats = reportSnapshotCache.get(REPORT_SUMMARY, statMonth, null, ReportSummaryVo.class);
+        if (appStats == null) {
+            boolean closed = isClosedMonth(yearMonth);
+            appStats = buildReportAppStats(yearMonth);
+            if (closed) {
+                reportSnapshotCache.put(REPORT_SUMMARY, statMonth, null, appStats);
+            }
+        }
 
         ReportSummaryVo vo = new ReportSummaryVo();
-        vo.setMonth(yearMonth.toString());
+        vo.setMonth(statMonth);
+        vo.setApplicationStats(appStats.getApplicationStats());
+        vo.setDeptMonthlyStats(appStats.getDeptMonthlyStats());
+        fillHeadcountStats(vo);
+        return vo;
+        }
 
-        List<User> activeUsers = userMapper.selectList(
-            new LambdaQueryWrapper<User>().eq(User::getStatus, 1));
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void rebuildReportStats(String month) {
+        YearMonth yearMonth = month == null || month.isEmpty() ? null : resolveYearMonth(month);
+        String statMonth = yearMonth != null ? yearMonth.toString() : null;
+        monthlyApplicantStatMapper.deleteByMonth(statMonth);
+        monthlyApplicantStatMapper.rebuild(yearMonth != null ? yearMonth.atDay(1).atStartOfDay() : null,
+                yearMonth != null ? yearMonth.plusMonths(1).atDay(1).atStartOfDay() : null);
+        reportSnapshotCache.evict(statMonth);
+    }
 
-        Map<Long, Long> deptCount = activeUsers.stream()
-            .filter(user -> user.getDeptId() != null)
-            .collect(Collectors.groupingBy(User::getDeptId, Collectors.counting()));
-        Map<Long, Long> postCount = activeUsers.stream()
-            .filter(user -> user.getPostId() != null)
-            .collect(Collectors.groupingBy(User::getPostId, Collectors.counting()));
+    /**
+     * 申请统计部分（读取月度汇总表，已结束月份可快照）
+     */
+    private ReportSummaryVo buildReportAppStats(YearMonth yearMonth) {
+        ReportSummaryVo vo = new ReportSummaryVo();
+        vo.setMonth(yearMonth.toString());
 
-        Set<Long> deptIds = new HashSet<>(deptCount.keySet());
+        // 申请量读取月度汇总表，不再扫描当月申请明细
+        List<ReportAppStatRowVo> appRows = reportMapper.selectAppStatsByDeptAndType(yearMonth.toString());
 
-        List<Application> monthApps = applicationMapper.selectList(
-            new LambdaQueryWrapper<Application>()
-                .ge(Application::getSubmitTime, start)
-                .lt(Application::getSubmitTime, end));
+        ReportSummaryVo.ApplicationStats appStats = new ReportSummaryVo.ApplicationStats();
+        appStats.setLeave(buildApplicationTypeStat(appRows, "leave"));
+        appStats.setReimburse(buildApplicationTypeStat(appRows, "reimburse"));
+        vo.setApplicationStats(appStats);
 
-        monthApps.stream()
-            .map(Application::getDeptId)
-            .filter(Objects::nonNull)
-            .forEach(deptIds::add);
+        vo.setDeptMonthlyStats(buildDeptMonthlyStats(appRows));
 
-        Map<Long, Dept> deptMap = deptIds.isEmpty()
-            ? Collections.emptyMap()
-            : deptMapper.selectBatchIds(deptIds).stream()
-                .filter(Objects::nonNull)
-                .collect(Collectors.toMap(Dept::getDeptId, dept -> dept));
+        return vo;
+    }
 
-        List<ReportSummaryVo.DeptEmployeeStat> deptStats = deptCount.entrySet().stream()
-            .map(entry -> {
+    /**
+     * 按部门、岗位的在职人数（当前人员）
+     */
+    private void fillHeadcountStats(ReportSummaryVo vo) {
+        // 人数在数据库分组汇总，只取聚合行
+        List<ReportSummaryVo.DeptEmployeeStat> deptStats = reportMapper.selectActiveUserCountByDept().stream()
+            .map(row -> {
                 ReportSummaryVo.DeptEmployeeStat stat = new ReportSummaryVo.DeptEmployeeStat();
-                stat.setDeptId(entry.getKey());
-                stat.setDeptName(deptMap.containsKey(entry.getKey())
-                    ? deptMap.get(entry.getKey()).getDeptName()
-                    : "未分配");
-                stat.setUserCount(entry.getValue());
+                stat.setDeptId(row.getGroupId());
+                stat.setDeptName(resolveDeptName(row.getGroupId()));
+                stat.setUserCount(row.getUserCount());
                 return stat;
             })
             .sorted(Comparator.comparingLong(ReportSummaryVo.DeptEmployeeStat::getUserCount).reversed())
             .collect(Collectors.toList());
         vo.setDeptEmployeeStats(deptStats);
 
-        Map<Long, Post> postMap = postCount.isEmpty()
+        List<ReportCountRowVo> postRows = reportMapper.selectActiveUserCountByPost();
+        Set<Long> postIds = postRows.stream()
+            .map(ReportCountRowVo::getGroupId)
+            .collect(Collectors.toSet());
+        Map<Long, Post> postMap = postIds.isEmpty()
             ? Collections.emptyMap()
-            : postMapper.selectBatchIds(postCount.keySet()).stream()
+            : postMapper.selectBatchIds(postIds).stream()
                 .filter(Objects::nonNull)
                 .collect(Collectors.toMap(Post::getPostId, post -> post));
-        List<ReportSummaryVo.PostEmployeeStat> postStats = postCount.entrySet().stream()
-            .map(entry -> {
+        List<ReportSummaryVo.PostEmployeeStat> postStats = postRows.stream()
+            .map(row -> {
                 ReportSummaryVo.PostEmployeeStat stat = new ReportSummaryVo.PostEmployeeStat();
-                stat.setPostId(entry.getKey());
-                stat.setPostName(postMap.containsKey(entry.getKey())
-                    ? postMap.get(entry.getKey()).getPostName()
+                stat.setPostId(row.getGroupId());
+                stat.setPostName(postMap.containsKey(row.getGroupId())
+                    ? postMap.get(row.getGroupId()).getPostName()
                     : "未分配");
-                stat.setUserCount(entry.getValue());
+                stat.setUserCount(row.getUserCount());
                 return stat;
             })
             .sorted(Comparator.comparingLong(ReportSummaryVo.PostEmployeeStat::getUserCount).reversed())
             .collect(Collectors.toList());
         vo.setPostEmployeeStats(postStats);
-
-        ReportSummaryVo.ApplicationStats appStats = new ReportSummaryVo.ApplicationStats();
-        appStats.setLeave(buildApplicationTypeStat(monthApps, "leave"));
-        appStats.setReimburse(buildApplicationTypeStat(monthApps, "reimburse"));
-        vo.setApplicationStats(appStats);
-
-        vo.setDeptMonthlyStats(buildDeptMonthlyStats(monthApps, deptMap));
-
-        return vo;
-        }
+    }
 
         @Override
-        public ReportDeptDetailVo getDeptReportDetail(Long deptId, String month) {
+        public ReportDeptDetailVo getDeptReportDetail(Long deptId, String month, boolean includeChildren) {
         if (deptId == null) {
             throw new BusinessException("部门ID不能为空");
         }
@@ -534,51 +602,145 @@ public class AdminServiceImpl implements IAdminService {
         }
 
         YearMonth yearMonth = resolveYearMonth(month);
-        LocalDateTime start = yearMonth.atDay(1).atStartOfDay();
-        LocalDateTime end = yearMonth.plusMonths(1).atDay(1).atStartOfDay();
-
-        List<User> deptUsers = userMapper.selectList(
-            new LambdaQueryWrapper<User>().eq(User::getDeptId, deptId));
-        Map<Long, User> userMap = deptUsers.stream()
-            .collect(Collectors.toMap(User::getUserId, user -> user));
-
-        List<Application> deptApps = applicationMapper.selectList(
-            new LambdaQueryWrapper<Application>()
-                .eq(Application::getDeptId, deptId)
-                .ge(Application::getSubmitTime, start)
-                .lt(Application::getSubmitTime, end));
-
-        Set<Long> applicantIds = deptApps.stream()
-                .map(Application::getApplicantId)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-
-        if (!applicantIds.isEmpty()) {
-            Set<Long> missingUserIds = applicantIds.stream()
-                    .filter(userId -> !userMap.containsKey(userId))
-                    .collect(Collectors.toSet());
-            if (!missingUserIds.isEmpty()) {
-                List<User> applicants = userMapper.selectBatchIds(missingUserIds);
-                applicants.stream()
-                        .filter(Objects::nonNull)
-                        .forEach(user -> userMap.put(user.getUserId(), user));
-            }
+        String statMonth = yearMonth.toString();
+        String reportType = includeChildren ? REPORT_DEPT_SUBTREE : REPORT_DEPT_DETAIL;
+
+        // 快照只保存成员申请明细；岗位人数反映当前人员，每次实时计算
+        ReportDeptDetailVo snapshot = reportSnapshotCache.get(reportType, statMonth, deptId, ReportDeptDetailVo.class);
+        boolean closed = snapshot == null && isClosedMonth(yearMonth);
+        ReportDeptDetailVo vo = buildDeptReportDetail(dept, yearMonth, includeChildren, snapshot);
+        if (closed && !vo.getFailedSections().contains(SECTION_LEAVE)
+                && !vo.getFailedSections().contains(SECTION_REIMBURSE)) {
+            ReportDeptDetailVo details = new ReportDeptDetailVo();
+            details.setDeptId(deptId);
+            details.setDeptName(vo.getDeptName());
+            details.setMonth(statMonth);
+            details.setLeaveDetails(vo.getLeaveDetails());
+            details.setReimburseDetails(vo.getReimburseDetails());
+            reportSnapshotCache.put(reportType, statMonth, deptId, details);
+        }
+        return vo;
         }
 
+    /**
+     * 岗位分布、请假明细、报销明细三段互不依赖，在报表线程池并行加载（明细已有快照时直接使用）；
+     * 超时、失败或线程池已满的分段返回空列表并记入 failedSections，其余分段照常返回。
+     */
+    private ReportDeptDetailVo buildDeptReportDetail(Dept dept, YearMonth yearMonth, boolean includeChildren,
+            ReportDeptDetailVo snapshot) {
+        Long deptId = dept.getDeptId();
+        String statMonth = yearMonth.toString();
+        long deadline = System.currentTimeMillis() + reportSectionTimeout;
+
+        CompletableFuture<List<ReportDeptDetailVo.DeptPostStat>> postStatsFuture = submitSection(SECTION_POST,
+                deadline, () -> buildDeptPostStats(loadReportUsers(statMonth, deptId, includeChildren)));
+        CompletableFuture<List<ReportDeptDetailVo.MemberLeaveDetail>> leaveFuture = snapshot != null
+                ? CompletableFuture.completedFuture(snapshot.getLeaveDetails())
+                : submitSection(SECTION_LEAVE, deadline, () -> buildMemberLeaveDetails(
+                        reportMapper.selectMemberStats(statMonth, deptId, includeChildren, "leave")));
+        CompletableFuture<List<ReportDeptDetailVo.MemberReimburseDetail>> reimburseFuture = snapshot != null
+                ? CompletableFuture.completedFuture(snapshot.getReimburseDetails())
+                : submitSection(SECTION_REIMBURSE, deadline, () -> buildMemberReimburseDetails(
+                        reportMapper.selectMemberStats(statMonth, deptId, includeChildren, "reimburse")));
+
+        List<String> failedSections = new ArrayList<>();
+
         ReportDeptDetailVo vo = new ReportDeptDetailVo();
         vo.setDeptId(deptId);
         vo.setDeptName(dept.getDeptName());
-        vo.setMonth(yearMonth.toString());
-        Collection<User> statUsers = userMap.values().stream()
-                .filter(user -> (user.getDeptId() != null && user.getDeptId().equals(deptId))
-                        || applicantIds.contains(user.getUserId()))
-                .collect(Collectors.toList());
-        vo.setDeptPostStats(buildDeptPostStats(statUsers));
-        vo.setLeaveDetails(buildMemberLeaveDetails(deptApps, userMap));
-        vo.setReimburseDetails(buildMemberReimburseDetails(deptApps, userMap));
+        vo.setMonth(statMonth);
+        vo.setDeptPostStats(awaitSection(SECTION_POST, postStatsFuture, deadline, failedSections));
+        vo.setLeaveDetails(awaitSection(SECTION_LEAVE, leaveFuture, deadline, failedSections));
+        vo.setReimburseDetails(awaitSection(SECTION_REIMBURSE, reimburseFuture, deadline, failedSections));
+        vo.setPartial(!failedSections.isEmpty());
+        vo.setFailedSections(failedSections);
 
         return vo;
+    }
+
+    /**
+     * 提交分段到报表线程池，线程池已满时不在请求线程执行，直接按失败处理
+     */
+    private <T> CompletableFuture<List<T>> submitSection(String section, long deadline, Supplier<List<T>> loader) {
+        try {
+            return CompletableFuture.supplyAsync(() -> runSection(deadline, loader), reportExecutor);
+        } catch (RejectedExecutionException e) {
+            log.warn("报表线程池已满，分段未执行: {}", section);
+            return CompletableFuture.failedFuture(e);
         }
+    }
+
+    /**
+     * 在只读事务中执行分段查询，事务超时取截止时间的剩余值，由驱动按语句超时中止慢查询并释放连接
+     */
+    private <T> List<T> runSection(long deadline, Supplier<List<T>> loader) {
+        long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+            throw new IllegalStateException("报表分段排队超时");
+        }
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        template.setTimeout((int) Math.max(1L, (remaining + 999) / 1000));
+        return template.execute(status -> loader.get());
+    }
+
+    /**
+     * 部门（或子树）成员，以及当月在该部门提交过申请的人员
+     */
+    private List<User> loadReportUsers(String statMonth, Long deptId, boolean includeChildren) {
+        // 月份与部门ID均以参数绑定
+        String applicantCondition = "user_id IN (SELECT applicant_id FROM bpm_monthly_applicant_stat "
+                + "WHERE stat_month = {1} AND " + (includeChildren ? DeptClosureMapper.DEPT_IN_SUBTREE : "dept_id = {0}")
+                + ")";
+        return userMapper.selectList(
+            new LambdaQueryWrapper<User>()
+                .and(w -> w.eq(!includeChildren, User::getDeptId, deptId)
+                    .apply(includeChildren, DeptClosureMapper.DEPT_IN_SUBTREE, deptId)
+                    .or()
+                    .apply(applicantCondition, deptId, statMonth)));
+    }
+
+    /**
+     * 用户调整部门后清除报表快照（部门报表按当前成员取数，新旧部门及其上级的快照都会变化）
+     */
+    private void evictReportSnapshotsOnMove(Long oldDeptId, Long newDeptId) {
+        if (!Objects.equals(oldDeptId, newDeptId)) {
+            reportSnapshotCache.evict(null);
+        }
+    }
+
+    /**
+     * 等待分段结果，共用同一截止时间，超时或失败返回空列表
+     */
+    private <T> List<T> awaitSection(String section, CompletableFuture<List<T>> future, long deadline,
+            List<String> failedSections) {
+        try {
+            long remaining = Math.max(0L, deadline - System.currentTimeMillis());
+            return future.get(remaining, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("报表分段加载被中断: {}", section);
+        } catch (ExecutionException e) {
+            log.warn("报表分段加载失败: {}", section, e.getCause());
+        } catch (TimeoutException e) {
+            // 仍在执行的查询由事务超时中止
+            log.warn("报表分段加载超时: {}", section);
+        }
+        failedSections.add(section);
+        return Collections.emptyList();
+    }
+
+    /**
+     * 月份已结束且该月提交的申请全部办结，报表结果不再变化
+     */
+    private boolean isClosedMonth(YearMonth yearMonth) {
+        if (!yearMonth.isBefore(YearMonth.now())) {
+            return false;
+        }
+        LocalDateTime start = yearMonth.atDay(1).atStartOfDay();
+        LocalDateTime end = yearMonth.plusMonths(1).atDay(1).atStartOfDay();
+        return reportMapper.countPendingApplications(start, end) == 0;
+    }
 
     private List<ReportDeptDetailVo.DeptPostStat> buildDeptPostStats(Collection<User> users) {
         if (users == null || users.isEmpty()) {
@@ -617,13 +779,15 @@ public class AdminServiceImpl implements IAdminService {
         return stats;
     }
 
-    private ReportSummaryVo.ApplicationTypeStat buildApplicationTypeStat(List<Application> applications, String appType) {
-        long total = applications.stream()
-                .filter(app -> appType.equals(app.getAppType()))
-                .count();
-        long approved = applications.stream()
-                .filter(app -> appType.equals(app.getAppType()) && Integer.valueOf(3).equals(app.getStatus()))
-                .count();
+    private ReportSummaryVo.ApplicationTypeStat buildApplicationTypeStat(List<ReportAppStatRowVo> rows, String appType) {
+        long total = 0;
+        long approved = 0;
+        for (ReportAppStatRowVo row : rows) {
+            if (appType.equals(row.getAppType())) {
+                total += nullToZero(row.getTotal());
+                approved += nullToZero(row.getApproved());
+            }
+        }
 
         ReportSummaryVo.ApplicationTypeStat stat = new ReportSummaryVo.ApplicationTypeStat();
         stat.setTotal(total);
@@ -632,30 +796,33 @@ public class AdminServiceImpl implements IAdminService {
         return stat;
     }
 
-    private List<ReportSummaryVo.DeptMonthlyStat> buildDeptMonthlyStats(List<Application> applications, Map<Long, Dept> deptMap) {
-        if (applications.isEmpty()) {
-            return Collections.emptyList();
+    private List<ReportSummaryVo.DeptMonthlyStat> buildDeptMonthlyStats(List<ReportAppStatRowVo> rows) {
+        Map<Long, long[]> grouped = new HashMap<>();
+        for (ReportAppStatRowVo row : rows) {
+            if (row.getDeptId() == null) {
+                continue;
+            }
+            // [请假数, 报销数, 全部数, 通过数]
+            long[] counter = grouped.computeIfAbsent(row.getDeptId(), id -> new long[4]);
+            long total = nullToZero(row.getTotal());
+            if ("leave".equals(row.getAppType())) {
+                counter[0] += total;
+            } else if ("reimburse".equals(row.getAppType())) {
+                counter[1] += total;
+            }
+            counter[2] += total;
+            counter[3] += nullToZero(row.getApproved());
         }
 
-        Map<Long, List<Application>> grouped = applications.stream()
-                .filter(app -> app.getDeptId() != null)
-                .collect(Collectors.groupingBy(Application::getDeptId));
-
         List<ReportSummaryVo.DeptMonthlyStat> stats = new ArrayList<>();
-        for (Map.Entry<Long, List<Application>> entry : grouped.entrySet()) {
-            List<Application> deptApps = entry.getValue();
-            long leaveTotal = deptApps.stream().filter(app -> "leave".equals(app.getAppType())).count();
-            long reimburseTotal = deptApps.stream().filter(app -> "reimburse".equals(app.getAppType())).count();
-            long approved = deptApps.stream().filter(app -> Integer.valueOf(3).equals(app.getStatus())).count();
-
+        for (Map.Entry<Long, long[]> entry : grouped.entrySet()) {
+            long[] counter = entry.getValue();
             ReportSummaryVo.DeptMonthlyStat stat = new ReportSummaryVo.DeptMonthlyStat();
             stat.setDeptId(entry.getKey());
-            stat.setDeptName(deptMap.containsKey(entry.getKey())
-                    ? deptMap.get(entry.getKey()).getDeptName()
-                    : "未分配");
-            stat.setLeaveTotal(leaveTotal);
-            stat.setReimburseTotal(reimburseTotal);
-            stat.setApprovalRate(calculateApprovalRate(deptApps.size(), approved));
+            stat.setDeptName(resolveDeptName(entry.getKey()));
+            stat.setLeaveTotal(counter[0]);
+            stat.setReimburseTotal(counter[1]);
+            stat.setApprovalRate(calculateApprovalRate(counter[2], counter[3]));
             stats.add(stat);
         }
 
@@ -664,80 +831,61 @@ public class AdminServiceImpl implements IAdminService {
         return stats;
     }
 
-    private List<ReportDeptDetailVo.MemberLeaveDetail> buildMemberLeaveDetails(List<Application> applications, Map<Long, User> userMap) {
-        List<Application> leaveApps = applications.stream()
-                .filter(app -> "leave".equals(app.getAppType()))
-                .collect(Collectors.toList());
-        if (leaveApps.isEmpty()) {
-            return Collections.emptyList();
-        }
+    private String resolveDeptName(Long deptId) {
+        String deptName = deptTreeCache.getDeptName(deptId);
+        return deptName != null ? deptName : "未分配";
+    }
 
-        List<Long> appIds = leaveApps.stream().map(Application::getAppId).collect(Collectors.toList());
-        Map<Long, LeaveApplication> leaveMap = leaveApplicationMapper.selectList(
-                new LambdaQueryWrapper<LeaveApplication>().in(LeaveApplication::getAppId, appIds))
-                .stream()
-                .collect(Collectors.toMap(LeaveApplication::getAppId, leave -> leave));
+    private long nullToZero(Long value) {
+        return value != null ? value : 0L;
+    }
 
-        Map<Long, ReportDeptDetailVo.MemberLeaveDetail> detailMap = new HashMap<>();
-        for (Application app : leaveApps) {
-            LeaveApplication leave = leaveMap.get(app.getAppId());
-            if (leave == null) {
-                continue;
-            }
-            ReportDeptDetailVo.MemberLeaveDetail detail = detailMap.computeIfAbsent(app.getApplicantId(), id -> {
-                ReportDeptDetailVo.MemberLeaveDetail item = new ReportDeptDetailVo.MemberLeaveDetail();
-                item.setUserId(id);
-                item.setRealName(userMap.containsKey(id) ? userMap.get(id).getRealName() : "未知");
-                item.setTimes(0L);
-                item.setDays(BigDecimal.ZERO);
-                return item;
-            });
-            detail.setTimes(detail.getTimes() + 1);
-            BigDecimal days = leave.getDays() != null ? leave.getDays() : BigDecimal.ZERO;
-            detail.setDays(detail.getDays().add(days));
-        }
-
-        return detailMap.values().stream()
+    private List<ReportDeptDetailVo.MemberLeaveDetail> buildMemberLeaveDetails(List<ReportMemberStatRowVo> rows) {
+        Map<Long, User> userMap = loadApplicantMap(rows);
+        return rows.stream()
+                .map(row -> {
+                    ReportDeptDetailVo.MemberLeaveDetail item = new ReportDeptDetailVo.MemberLeaveDetail();
+                    item.setUserId(row.getApplicantId());
+                    item.setRealName(resolveRealName(userMap, row.getApplicantId()));
+                    item.setTimes(nullToZero(row.getTimes()));
+                    item.setDays(row.getTotalValue() != null ? row.getTotalValue() : BigDecimal.ZERO);
+                    return item;
+                })
                 .sorted(Comparator.comparingLong(ReportDeptDetailVo.MemberLeaveDetail::getTimes).reversed())
                 .collect(Collectors.toList());
     }
 
-    private List<ReportDeptDetailVo.MemberReimburseDetail> buildMemberReimburseDetails(List<Application> applications, Map<Long, User> userMap) {
-        List<Application> reimburseApps = applications.stream()
-                .filter(app -> "reimburse".equals(app.getAppType()))
+    private List<ReportDeptDetailVo.MemberReimburseDetail> buildMemberReimburseDetails(List<ReportMemberStatRowVo> rows) {
+        Map<Long, User> userMap = loadApplicantMap(rows);
+        return rows.stream()
+                .map(row -> {
+                    ReportDeptDetailVo.MemberReimburseDetail item = new ReportDeptDetailVo.MemberReimburseDetail();
+                    item.setUserId(row.getApplicantId());
+                    item.setRealName(resolveRealName(userMap, row.getApplicantId()));
+                    item.setTimes(nullToZero(row.getTimes()));
+                    item.setAmount(row.getTotalValue() != null ? row.getTotalValue() : BigDecimal.ZERO);
+                    return item;
+                })
+                .sorted(Comparator.comparingLong(ReportDeptDetailVo.MemberReimburseDetail::getTimes).reversed())
                 .collect(Collectors.toList());
-        if (reimburseApps.isEmpty()) {
-            return Collections.emptyList();
-        }
+    }
 
-        List<Long> appIds = reimburseApps.stream().map(Application::getAppId).collect(Collectors.toList());
-        Map<Long, ReimburseApplication> reimburseMap = reimburseApplicationMapper.selectList(
-                new LambdaQueryWrapper<ReimburseApplication>().in(ReimburseApplication::getAppId, appIds))
-                .stream()
-                .collect(Collectors.toMap(ReimburseApplication::getAppId, reimburse -> reimburse));
+    private Map<Long, User> loadApplicantMap(List<ReportMemberStatRowVo> rows) {
+        Set<Long> applicantIds = rows.stream()
+                .map(ReportMemberStatRowVo::getApplicantId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (applicantIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return userMapper.selectBatchIds(applicantIds).stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toMap(User::getUserId, user -> user));
+    }
 
-        Map<Long, ReportDeptDetailVo.MemberReimburseDetail> detailMap = new HashMap<>();
-        for (Application app : reimburseApps) {
-            ReimburseApplication reimburse = reimburseMap.get(app.getAppId());
-            if (reimburse == null) {
-                continue;
-            }
-            ReportDeptDetailVo.MemberReimburseDetail detail = detailMap.computeIfAbsent(app.getApplicantId(), id -> {
-                ReportDeptDetailVo.MemberReimburseDetail item = new ReportDeptDetailVo.MemberReimburseDetail();
-                item.setUserId(id);
-                item.setRealName(userMap.containsKey(id) ? userMap.get(id).getRealName() : "未知");
-                item.setTimes(0L);
-                item.setAmount(BigDecimal.ZERO);
-                return item;
-            });
-            detail.setTimes(detail.getTimes() + 1);
-            BigDecimal amount = reimburse.getAmount() != null ? reimburse.getAmount() : BigDecimal.ZERO;
-            detail.setAmount(detail.getAmount().add(amount));
-        }
-
-        return detailMap.values().stream()
-                .sorted(Comparator.comparingLong(ReportDeptDetailVo.MemberReimburseDetail::getTimes).reversed())
-                .collect(Collectors.toList());
+    private String resolveRealName(Map<Long, User> userMap, Long userId) {
+        User user = userMap.get(userId);
+        return user != null ? user.getRealName() : "未知";
     }
 
     private YearMonth resolveYearMonth(String month) {
@@ -762,30 +910,52 @@ public class AdminServiceImpl implements IAdminService {
 
     private void savePostPermissions(Long postId, java.util.List<Long> permissionIds) {
         permissionMapper.deletePostPermissions(postId);
+        postPermissionCache.invalidate();
         if (permissionIds == null || permissionIds.isEmpty()) {
             return;
         }
 
-        for (Long permissionId : permissionIds) {
-            Permission permission = permissionMapper.selectById(permissionId);
-            if (permission == null || permission.getStatus() == null || permission.getStatus() == 0) {
-                throw new BusinessException("权限不存在或已禁用");
-            }
-            permissionMapper.insertPostPermission(postId, permissionId);
+        // 一次查询校验全部权限，一条多行 INSERT 写入
+        Set<Long> distinctIds = new LinkedHashSet<>(permissionIds);
+        if (distinctIds.contains(null)) {
+            throw new BusinessException("权限不存在或已禁用");
+        }
+        long enabledCount = permissionMapper.selectBatchIds(distinctIds).stream()
+                .filter(permission -> permission.getStatus() != null && permission.getStatus() != 0)
+                .count();
+        if (enabledCount != distinctIds.size()) {
+            throw new BusinessException("权限不存在或已禁用");
         }
+        permissionMapper.insertPostPermissions(postId, distinctIds);
     }
 
-    private PostVo convertToPostVo(Post post) {
-        PostVo vo = new PostVo();
-        org.springframework.beans.BeanUtils.copyProperties(post, vo);
-        List<Permission> permissionList = permissionMapper.selectPermissionsByPostId(post.getPostId());
-        if (permissionList == null) {
-            permissionList = java.util.Collections.emptyList();
+    /**
+     * 批量转换岗位VO：整页岗位的权限一次查询后按岗位分组
+     */
+    private List<PostVo> convertToPostVos(List<Post> posts) {
+        if (posts.isEmpty()) {
+            return new ArrayList<>();
         }
-        vo.setPermissions(permissionList.stream()
-                .map(this::convertToPermissionVo)
-                .collect(Collectors.toList()));
-        return vo;
+
+        Set<Long> postIds = posts.stream()
+                .map(Post::getPostId)
+                .collect(Collectors.toSet());
+        Map<Long, List<PermissionVo>> permissionMap = new HashMap<>();
+        for (PostPermissionVo row : permissionMapper.selectPermissionsByPostIds(postIds)) {
+            PermissionVo permission = new PermissionVo();
+            permission.setPermissionId(row.getPermissionId());
+            permission.setPermissionCode(row.getPermissionCode());
+            permission.setPermissionName(row.getPermissionName());
+            permission.setDescription(row.getDescription());
+            permissionMap.computeIfAbsent(row.getPostId(), id -> new ArrayList<>()).add(permission);
+        }
+
+        return posts.stream().map(post -> {
+            PostVo vo = new PostVo();
+            org.springframework.beans.BeanUtils.copyProperties(post, vo);
+            vo.setPermissions(permissionMap.getOrDefault(post.getPostId(), new ArrayList<>()));
+            return vo;
+        }).collect(Collectors.toList());
     }
 
     private PermissionVo convertToPermissionVo(Permission permission) {
@@ -794,31 +964,34 @@ public class AdminServiceImpl implements IAdminService {
         return vo;
     }
 
-    private UserVo convertToUserVo(User user) {
-        UserVo vo = new UserVo();
-        org.springframework.beans.BeanUtils.copyProperties(user, vo);
-
-        if (user.getDeptId() != null) {
-            Dept dept = deptMapper.selectById(user.getDeptId());
-            if (dept != null) {
-                vo.setDeptName(dept.getDeptName());
-            }
-        }
-
-        if (user.getPostId() != null) {
-            Post post = postMapper.selectById(user.getPostId());
-            if (post != null) {
-                vo.setPostName(post.getPostName());
-            }
+    /**
+     * 批量转换用户VO：部门名称取自组织树缓存，岗位按页去重后一次批量查询，权限编码取自岗位权限缓存
+     */
+    private List<UserVo> convertToUserVos(List<User> users) {
+        if (users.isEmpty()) {
+            return new ArrayList<>();
         }
 
-        List<String> permissions = java.util.Collections.emptyList();
-        if (user.getPostId() != null) {
-            List<String> codes = permissionMapper.selectPermissionCodesByPostId(user.getPostId());
-            permissions = codes != null ? codes : java.util.Collections.emptyList();
-        }
-        vo.setPermissions(permissions);
+        Set<Long> postIds = users.stream()
+                .map(User::getPostId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, String> postNameMap = postIds.isEmpty()
+                ? Collections.emptyMap()
+                : postMapper.selectBatchIds(postIds).stream()
+                        .collect(Collectors.toMap(Post::getPostId, Post::getPostName, (a, b) -> a));
 
-        return vo;
+        return users.stream().map(user -> {
+            UserVo vo = new UserVo();
+            org.springframework.beans.BeanUtils.copyProperties(user, vo);
+            if (user.getDeptId() != null) {
+                vo.setDeptName(deptTreeCache.getDeptName(user.getDeptId()));
+            }
+            if (user.getPostId() != null) {
+                vo.setPostName(postNameMap.get(user.getPostId()));
+            }
+            vo.setPermissions(new ArrayList<>(postPermissionCache.getPermissionCodes(user.getPostId())));
+            return vo;
+        }).collect(Collectors.toList());
     }
 }
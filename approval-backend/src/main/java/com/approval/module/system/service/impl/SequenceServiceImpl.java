@@ -0,0 +1,163 @@
+package com.approval.module.system.service.impl;
+
+import com.approval.common.exception.BusinessException;
+import com.approval.module.system.mapper.SequenceMapper;
+import com.approval.module.system.service.ISequenceService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 序列号服务实现
+ * <p>
+ * 按号段从 sys_sequence 表（或 Redis INCRBY）租用一段序列值，号段内在内存中无锁分配，
+ * 只有号段用完或周期变化时才访问存储。服务重启时未用完的号段会被丢弃，序列可能出现空号但不会重复。
+ * 数据库号段在独立事务中提交，调用方应在业务事务开始前取号，避免一个请求同时占用两个连接。
+ */
+@Service
+public class SequenceServiceImpl implements ISequenceService {
+
+    private static final String REDIS_KEY_PREFIX = "approval:seq:";
+
+    private final SequenceMapper sequenceMapper;
+
+    private final TransactionTemplate leaseTransaction;
+
+    private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    private final boolean redisStore;
+
+    private final int step;
+
+    private final Map<String, Segment> segments = new ConcurrentHashMap<>();
+
+    private final Map<String, Object> leaseLocks = new ConcurrentHashMap<>();
+
+    public SequenceServiceImpl(SequenceMapper sequenceMapper,
+            PlatformTransactionManager transactionManager,
+            ObjectProvider<StringRedisTemplate> redisTemplateProvider,
+            @Value("${approval.sequence.store:db}") String store,
+            @Value("${approval.sequence.step:100}") int step) {
+        this.sequenceMapper = sequenceMapper;
+        this.leaseTransaction = new TransactionTemplate(transactionManager);
+        this.leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.redisTemplateProvider = redisTemplateProvider;
+        this.redisStore = "redis".equalsIgnoreCase(store);
+        this.step = Math.max(step, 1);
+    }
+
+    @Override
+    public long nextValue(String name, String period, LongSupplier seed) {
+        while (true) {
+            Segment segment = segments.get(name);
+            if (segment != null && segment.period.equals(period)) {
+                long value = segment.cursor.getAndIncrement();
+                if (value <= segment.end) {
+                    return value;
+                }
+            }
+            synchronized (lockOf(name)) {
+                // 双重检查：其它线程可能已经完成续租
+                if (segments.get(name) == segment) {
+                    segments.put(name, lease(name, period, seed));
+                }
+            }
+        }
+    }
+
+    @Override
+    public long[] nextValues(String name, String period, int count, LongSupplier seed) {
+        long[] values = new long[count];
+        int filled = 0;
+        while (filled < count) {
+            Segment segment = segments.get(name);
+            if (segment != null && segment.period.equals(period)) {
+                // 在当前号段内一次占用尽可能多的值，超出号段的部分作废，续租后继续
+                int need = count - filled;
+                long start = segment.cursor.getAndAdd(need);
+                long last = Math.min(start + need - 1, segment.end);
+                for (long value = start; value <= last; value++) {
+                    values[filled++] = value;
+                }
+                if (filled == count) {
+                    return values;
+                }
+            }
+            synchronized (lockOf(name)) {
+                if (segments.get(name) == segment) {
+                    segments.put(name, lease(name, period, seed));
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * 按序列名称加锁续租，不同序列的续租互不阻塞
+     */
+    private Object lockOf(String name) {
+        return leaseLocks.computeIfAbsent(name, key -> new Object());
+    }
+
+    private Segment lease(String name, String period, LongSupplier seed) {
+        String seqKey = name + period;
+        long max = redisStore ? leaseFromRedis(seqKey, seed) : leaseFromDb(seqKey, seed);
+        return new Segment(period, max - step + 1, max);
+    }
+
+    private long leaseFromDb(String seqKey, LongSupplier seed) {
+        // 独立事务提交号段，避免被业务事务回滚或长时间持有行锁
+        Long max = leaseTransaction.execute(status -> {
+            if (sequenceMapper.selectMaxValue(seqKey) == null) {
+                sequenceMapper.insertIgnore(seqKey, seed.getAsLong());
+            }
+            sequenceMapper.increase(seqKey, step);
+            return sequenceMapper.selectMaxValue(seqKey);
+        });
+        if (max == null) {
+            throw new BusinessException("序列号分配失败");
+        }
+        return max;
+    }
+
+    private long leaseFromRedis(String seqKey, LongSupplier seed) {
+        StringRedisTemplate redisTemplate = redisTemplateProvider.getIfAvailable();
+        if (redisTemplate == null) {
+            throw new BusinessException("未配置 Redis，无法分配序列号");
+        }
+        String key = REDIS_KEY_PREFIX + seqKey;
+        if (!Boolean.TRUE.equals(redisTemplate.hasKey(key))) {
+            redisTemplate.opsForValue().setIfAbsent(key, String.valueOf(seed.getAsLong()), Duration.ofDays(2));
+        }
+        Long max = redisTemplate.opsForValue().increment(key, step);
+        if (max == null) {
+            throw new BusinessException("序列号分配失败");
+        }
+        return max;
+    }
+
+    private static final class Segment {
+
+        private final String period;
+
+        private final AtomicLong cursor;
+
+        private final long end;
+
+        private Segment(String period, long start, long end) {
+            this.period = period;
+            this.cursor = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
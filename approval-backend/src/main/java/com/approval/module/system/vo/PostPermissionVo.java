@@ -0,0 +1,20 @@
+package com.approval.module.system.vo;
+
+import lombok.Data;
+
+/**
+ * 岗位-权限关联（带岗位ID的权限行）
+ */
+@Data
+public class PostPermissionVo {
+
+    private Long postId;
+
+    private Long permissionId;
+
+    private String permissionCode;
+
+    private String permissionName;
+
+    private String description;
+}
@@ -0,0 +1,19 @@
+package com.approval.module.system.vo.report;
+
+import lombok.Data;
+
+/**
+ * 报表申请按部门、类型汇总行
+ */
+@Data
+public class ReportAppStatRowVo {
+
+    private Long deptId;
+
+    private String appType;
+
+    private Long total;
+
+    /** 已通过数量 */
+    private Long approved;
+}
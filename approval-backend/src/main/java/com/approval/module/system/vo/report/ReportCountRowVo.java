@@ -0,0 +1,15 @@
+package com.approval.module.system.vo.report;
+
+import lombok.Data;
+
+/**
+ * 报表分组计数行
+ */
+@Data
+public class ReportCountRowVo {
+
+    /** 分组ID（部门ID或岗位ID） */
+    private Long groupId;
+
+    private Long userCount;
+}
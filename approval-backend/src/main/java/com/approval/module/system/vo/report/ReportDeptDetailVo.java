@@ -19,6 +19,11 @@ public class ReportDeptDetailVo {
     private List<MemberLeaveDetail> leaveDetails = Collections.emptyList();
     private List<MemberReimburseDetail> reimburseDetails = Collections.emptyList();
 
+    /** 部分分段超时或失败时为 true，对应字段返回空列表 */
+    private Boolean partial = false;
+    /** 未能加载的分段（字段名） */
+    private List<String> failedSections = Collections.emptyList();
+
     @Data
     public static class MemberLeaveDetail {
         private Long userId;
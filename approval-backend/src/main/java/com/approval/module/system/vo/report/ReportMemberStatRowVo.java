@@ -0,0 +1,21 @@
+package com.approval.module.system.vo.report;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * 报表成员按申请类型汇总行
+ */
+@Data
+public class ReportMemberStatRowVo {
+
+    private Long applicantId;
+
+    private String appType;
+
+    private Long times;
+
+    /** 请假天数或报销金额合计 */
+    private BigDecimal totalValue;
+}
@@ -0,0 +1,161 @@
+package com.approval.module.approval.cache;
+
+import com.approval.module.approval.entity.Application;
+import com.approval.module.approval.mapper.ApplicationMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 申请检索索引测试
+ */
+class ApplicationSearchIndexTest {
+
+    private final List<Application> rows = new ArrayList<>();
+
+    private ApplicationMapper applicationMapper;
+
+    @BeforeEach
+    void setUp() {
+        rows.clear();
+        applicationMapper = mock(ApplicationMapper.class);
+        // 模拟按申请ID分批读取：返回 afterId 之后的至多 limit 条
+        when(applicationMapper.selectSearchDocs(anyLong(), anyInt())).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            int limit = invocation.getArgument(1);
+            return rows.stream()
+                    .filter(app -> app.getAppId() > afterId)
+                    .sorted(Comparator.comparing(Application::getAppId))
+                    .limit(limit)
+                    .collect(Collectors.toList());
+        });
+    }
+
+    @Test
+    @DisplayName("乱序写入的申请按申请ID倒序返回")
+    void searchReturnsNewestFirstRegardlessOfInsertOrder() {
+        ApplicationSearchIndex index = readyIndex(1000);
+        for (long appId : new long[]{5, 2, 9, 3, 7}) {
+            index.add(app(appId, "出差报销-" + appId));
+        }
+
+        assertThat(index.search("出差")).containsExactly(9L, 7L, 5L, 3L, 2L);
+    }
+
+    @Test
+    @DisplayName("二元组全部命中但原文不连续时不返回")
+    void searchConfirmsSubstringAgainstDocument() {
+        ApplicationSearchIndex index = readyIndex(1000);
+        index.add(app(1L, "报销差旅费"));
+        index.add(app(2L, "报销，销差"));
+
+        assertThat(index.search("报销差")).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("单号按不区分大小写的子串匹配")
+    void searchMatchesAppNoCaseInsensitively() {
+        ApplicationSearchIndex index = readyIndex(1000);
+        index.add(app(1L, "请假申请-事假"));
+        index.add(app(2L, "请假申请-病假"));
+
+        assertThat(index.search("ap2026")).containsExactly(2L, 1L);
+        assertThat(index.search("AP20260101000002")).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("某个二元组不存在时返回空结果而不是回退")
+    void searchReturnsEmptyWhenGramMissing() {
+        ApplicationSearchIndex index = readyIndex(1000);
+        index.add(app(1L, "请假申请"));
+
+        assertThat(index.search("报销")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("命中超过上限时只返回最新的若干条")
+    void searchCapsResultsAtMaxNewestFirst() {
+        ApplicationSearchIndex index = readyIndex(2);
+        index.add(app(1L, "出差报销"));
+        index.add(app(2L, "出差报销"));
+        index.add(app(3L, "请假"));
+        index.add(app(4L, "出差报销"));
+
+        assertThat(index.search("出差")).containsExactly(4L, 2L);
+    }
+
+    @Test
+    @DisplayName("乱序插入换新数组，已取得的快照不受影响")
+    void outOfOrderInsertDoesNotDisturbEarlierResults() {
+        ApplicationSearchIndex index = readyIndex(1000);
+        for (long appId = 10; appId <= 20; appId += 2) {
+            index.add(app(appId, "出差报销"));
+        }
+        List<Long> before = index.search("出差");
+        index.add(app(11L, "出差报销"));
+        index.add(app(1L, "出差报销"));
+
+        assertThat(before).containsExactly(20L, 18L, 16L, 14L, 12L, 10L);
+        assertThat(index.search("出差")).containsExactly(20L, 18L, 16L, 14L, 12L, 11L, 10L, 1L);
+    }
+
+    @Test
+    @DisplayName("关键字不足两个字符、索引未就绪或未开启时返回 null")
+    void searchFallsBackForShortKeywordOrUnavailableIndex() {
+        ApplicationSearchIndex index = readyIndex(1000);
+        index.add(app(1L, "出差报销"));
+        assertThat(index.search("出")).isNull();
+        assertThat(index.search("  出 ")).isNull();
+        assertThat(index.search(null)).isNull();
+
+        ApplicationSearchIndex notReady = new ApplicationSearchIndex(applicationMapper, true, 100, 1000, 0L);
+        notReady.add(app(1L, "出差报销"));
+        assertThat(notReady.search("出差")).isNull();
+
+        ApplicationSearchIndex disabled = new ApplicationSearchIndex(applicationMapper, false, 100, 1000, 0L);
+        assertThat(disabled.search("出差")).isNull();
+    }
+
+    @Test
+    @DisplayName("构建与补读按批次加载数据库中的申请，并补上其它节点新增的申请")
+    void buildAndRefreshLoadRowsInBatches() {
+        for (long appId = 1; appId <= 5; appId++) {
+            rows.add(app(appId, "出差报销-" + appId));
+        }
+        ApplicationSearchIndex index = new ApplicationSearchIndex(applicationMapper, true, 2, 1000, 0L);
+        ReflectionTestUtils.invokeMethod(index, "buildAll");
+        assertThat(index.search("出差")).containsExactly(5L, 4L, 3L, 2L, 1L);
+
+        // 其它节点提交的申请，本节点未经 add 写入
+        rows.add(app(6L, "出差报销-6"));
+        assertThat(index.search("出差")).containsExactly(6L, 5L, 4L, 3L, 2L, 1L);
+    }
+
+    private ApplicationSearchIndex readyIndex(int maxResults) {
+        // 补读间隔设得很大，只测试显式写入的数据
+        ApplicationSearchIndex index = new ApplicationSearchIndex(applicationMapper, true, 100, maxResults,
+                Long.MAX_VALUE);
+        ReflectionTestUtils.invokeMethod(index, "buildAll");
+        return index;
+    }
+
+    private static Application app(long appId, String title) {
+        Application app = new Application();
+        app.setAppId(appId);
+        app.setAppNo(String.format("AP20260101%06d", appId));
+        app.setTitle(title);
+        return app;
+    }
+}
@@ -0,0 +1,310 @@
+package com.approval.module.approval.service.impl;
+
+import com.approval.common.exception.BusinessException;
+import com.approval.module.approval.cache.ApplicantSummaryCache;
+import com.approval.module.approval.cache.ApplicationSearchIndex;
+import com.approval.module.approval.cache.ApproverEligibilityCache;
+import com.approval.module.approval.dto.BatchCreateApplicationDto;
+import com.approval.module.approval.dto.CreateLeaveDto;
+import com.approval.module.approval.dto.CreateReimburseDto;
+import com.approval.module.approval.entity.Application;
+import com.approval.module.approval.mapper.ApplicationMapper;
+import com.approval.module.approval.mapper.HistoryMapper;
+import com.approval.module.approval.mapper.LeaveApplicationMapper;
+import com.approval.module.approval.mapper.MonthlyApplicantStatMapper;
+import com.approval.module.approval.mapper.ReimburseApplicationMapper;
+import com.approval.module.approval.mapper.TaskMapper;
+import com.approval.module.approval.vo.BatchItemResultVo;
+import com.approval.module.system.cache.DeptTreeCache;
+import com.approval.module.system.cache.PostPermissionCache;
+import com.approval.module.system.entity.User;
+import com.approval.module.system.mapper.DeptMapper;
+import com.approval.module.system.mapper.PostMapper;
+import com.approval.module.system.mapper.UserMapper;
+import com.approval.module.system.service.ISequenceService;
+import com.baomidou.mybatisplus.extension.toolkit.Db;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 批量代提交申请测试（数据库访问全部用 Mock 代替）
+ */
+class ApplicationServiceImplTest {
+
+    private static final long OPERATOR_ID = 100L;
+
+    private static final long OPERATOR_DEPT_ID = 10L;
+
+    private static final long CHILD_DEPT_ID = 11L;
+
+    private static final long OTHER_DEPT_ID = 20L;
+
+    private static final long OPERATOR_POST_ID = 1L;
+
+    private static final long APPROVER_POST_ID = 2L;
+
+    private final List<User> users = new ArrayList<>();
+
+    private final List<Application> savedApplications = new ArrayList<>();
+
+    private UserMapper userMapper;
+
+    private PostPermissionCache postPermissionCache;
+
+    private ISequenceService sequenceService;
+
+    private MonthlyApplicantStatMapper monthlyApplicantStatMapper;
+
+    private DeptTreeCache deptTreeCache;
+
+    private MockedStatic<Db> db;
+
+    private ApplicationServiceImpl applicationService;
+
+    @BeforeEach
+    void setUp() {
+        users.clear();
+        savedApplications.clear();
+        userMapper = mock(UserMapper.class);
+        postPermissionCache = mock(PostPermissionCache.class);
+        sequenceService = mock(ISequenceService.class);
+        monthlyApplicantStatMapper = mock(MonthlyApplicantStatMapper.class);
+        deptTreeCache = mock(DeptTreeCache.class);
+
+        when(userMapper.selectById(anyLong())).thenAnswer(invocation -> findUser(invocation.getArgument(0)));
+        when(userMapper.selectBatchIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<?> ids = invocation.getArgument(0);
+            return users.stream().filter(user -> ids.contains(user.getUserId())).collect(Collectors.toList());
+        });
+        when(postPermissionCache.hasPermission(OPERATOR_POST_ID, "APPLICATION_PROXY_SUBMIT")).thenReturn(true);
+        when(postPermissionCache.hasPermission(APPROVER_POST_ID, "APPROVAL_REVIEW")).thenReturn(true);
+        // 操作人部门 10，下级部门 11；部门 20 不在其子树内
+        when(deptTreeCache.isSelfOrDescendant(OPERATOR_DEPT_ID, OPERATOR_DEPT_ID)).thenReturn(true);
+        when(deptTreeCache.isSelfOrDescendant(OPERATOR_DEPT_ID, CHILD_DEPT_ID)).thenReturn(true);
+        when(sequenceService.nextValues(anyString(), anyString(), anyInt(), any()))
+                .thenAnswer(invocation -> LongStream.rangeClosed(1, invocation.<Integer>getArgument(2)).toArray());
+
+        // 批量写入时模拟数据库回填主键
+        AtomicLong ids = new AtomicLong(1000);
+        db = mockStatic(Db.class);
+        db.when(() -> Db.saveBatch(anyCollection())).thenAnswer(invocation -> {
+            for (Object entity : invocation.<Collection<?>>getArgument(0)) {
+                if (entity instanceof Application application) {
+                    application.setAppId(ids.incrementAndGet());
+                    savedApplications.add(application);
+                }
+            }
+            return true;
+        });
+
+        applicationService = new ApplicationServiceImpl(mock(ApplicationMapper.class),
+                mock(LeaveApplicationMapper.class), mock(ReimburseApplicationMapper.class), userMapper,
+                mock(TaskMapper.class), mock(HistoryMapper.class), mock(DeptMapper.class), mock(PostMapper.class),
+                postPermissionCache, sequenceService, mock(ApplicantSummaryCache.class),
+                mock(ApplicationSearchIndex.class), mock(ApproverEligibilityCache.class), monthlyApplicantStatMapper,
+                deptTreeCache, new TransactionTemplate(mock(PlatformTransactionManager.class)));
+
+        users.add(user(OPERATOR_ID, OPERATOR_DEPT_ID, OPERATOR_POST_ID));
+        users.add(user(1L, OPERATOR_DEPT_ID, null));
+        users.add(user(2L, CHILD_DEPT_ID, null));
+        users.add(user(3L, OTHER_DEPT_ID, null));
+        users.add(user(51L, OPERATOR_DEPT_ID, APPROVER_POST_ID));
+        users.add(user(52L, CHILD_DEPT_ID, APPROVER_POST_ID));
+        users.add(user(53L, OTHER_DEPT_ID, APPROVER_POST_ID));
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.close();
+    }
+
+    @Test
+    @DisplayName("无代提交权限时整批拒绝")
+    void rejectsOperatorWithoutProxyPermission() {
+        when(postPermissionCache.hasPermission(OPERATOR_POST_ID, "APPLICATION_PROXY_SUBMIT")).thenReturn(false);
+
+        assertThatThrownBy(() -> applicationService.batchCreateApplications(
+                dto(leave(1L, 51L, "1.5")), OPERATOR_ID))
+                .isInstanceOf(BusinessException.class)
+                .hasFieldOrPropertyWithValue("code", 403);
+        verify(sequenceService, never()).nextValues(anyString(), anyString(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("操作人未分配部门时整批拒绝")
+    void rejectsOperatorWithoutDept() {
+        findUser(OPERATOR_ID).setDeptId(null);
+
+        assertThatThrownBy(() -> applicationService.batchCreateApplications(
+                dto(leave(1L, 51L, "1.5")), OPERATOR_ID))
+                .isInstanceOf(BusinessException.class)
+                .hasFieldOrPropertyWithValue("code", 403);
+    }
+
+    @Test
+    @DisplayName("只能为本部门及下级部门人员代提交")
+    void restrictsApplicantsToOperatorSubtree() {
+        List<BatchItemResultVo> results = applicationService.batchCreateApplications(
+                dto(leave(1L, 51L, "1"), leave(2L, 52L, "2"), leave(3L, 53L, "3")), OPERATOR_ID);
+
+        assertThat(results).extracting(BatchItemResultVo::getSuccess).containsExactly(true, true, false);
+        assertThat(results.get(2).getMessage()).isEqualTo("无权为其他部门人员代提交申请");
+        assertThat(savedApplications).extracting(Application::getApplicantId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("逐项返回失败原因，其余申请照常提交")
+    void reportsFailuresPerItem() {
+        BatchCreateApplicationDto.Item unknownType = leave(1L, 51L, "1");
+        unknownType.setAppType("travel");
+        BatchCreateApplicationDto.Item missingContent = new BatchCreateApplicationDto.Item();
+        missingContent.setApplicantId(1L);
+        missingContent.setAppType("reimburse");
+
+        List<BatchItemResultVo> results = applicationService.batchCreateApplications(dto(
+                unknownType,
+                leave(1L, 51L, "1"),
+                missingContent,
+                leave(999L, 51L, "1"),
+                leave(1L, 1L, "1"),
+                reimburse(2L, 52L, "88.50")), OPERATOR_ID);
+
+        assertThat(results).extracting(BatchItemResultVo::getIndex).containsExactly(0, 1, 2, 3, 4, 5);
+        assertThat(results).extracting(BatchItemResultVo::getMessage).containsExactly(
+                "不支持的申请类型", null, "报销申请内容不能为空", "用户不存在", "申请人不能审批自己的申请", null);
+        assertThat(results.get(1).getId()).isEqualTo(savedApplications.get(0).getAppId());
+        assertThat(results.get(5).getId()).isEqualTo(savedApplications.get(1).getAppId());
+        // 只为校验通过的两项分配单号
+        verify(sequenceService).nextValues(eq("AP"), anyString(), eq(2), any());
+    }
+
+    @Test
+    @DisplayName("全部失败时不分配单号也不写库")
+    void allItemsFailingSkipsWrites() {
+        List<BatchItemResultVo> results = applicationService.batchCreateApplications(
+                dto(leave(3L, 53L, "1")), OPERATOR_ID);
+
+        assertThat(results).extracting(BatchItemResultVo::getSuccess).containsExactly(false);
+        verify(sequenceService, never()).nextValues(anyString(), anyString(), anyInt(), any());
+        db.verifyNoInteractions();
+    }
+
+    @Test
+    @DisplayName("月度汇总按部门、申请人、类型合并后累加")
+    void mergesMonthlyCounters() {
+        applicationService.batchCreateApplications(dto(
+                leave(1L, 51L, "1.5"),
+                leave(1L, 51L, "2"),
+                reimburse(1L, 51L, "100"),
+                leave(2L, 52L, "0.5")), OPERATOR_ID);
+
+        String statMonth = savedApplications.get(0).getSubmitTime().toString().substring(0, 7);
+        verify(monthlyApplicantStatMapper).increase(statMonth, OPERATOR_DEPT_ID, 1L, "leave", 2, 0,
+                new BigDecimal("3.5"));
+        verify(monthlyApplicantStatMapper).increase(statMonth, OPERATOR_DEPT_ID, 1L, "reimburse", 1, 0,
+                new BigDecimal("100"));
+        verify(monthlyApplicantStatMapper).increase(statMonth, CHILD_DEPT_ID, 2L, "leave", 1, 0,
+                new BigDecimal("0.5"));
+    }
+
+    @Test
+    @DisplayName("单次最多 200 条")
+    void itemsAreCappedAt200() {
+        try (ValidatorFactory factory = Validation.buildDefaultValidatorFactory()) {
+            Validator validator = factory.getValidator();
+
+            BatchCreateApplicationDto full = dto(Collections.nCopies(200, leave(1L, 51L, "1"))
+                    .toArray(BatchCreateApplicationDto.Item[]::new));
+            assertThat(validator.validate(full)).isEmpty();
+
+            BatchCreateApplicationDto tooMany = dto(Collections.nCopies(201, leave(1L, 51L, "1"))
+                    .toArray(BatchCreateApplicationDto.Item[]::new));
+            Set<ConstraintViolation<BatchCreateApplicationDto>> violations = validator.validate(tooMany);
+            assertThat(violations).extracting(ConstraintViolation::getMessage).containsExactly("单次最多提交200条申请");
+        }
+    }
+
+    private User findUser(Long userId) {
+        return users.stream().filter(user -> user.getUserId().equals(userId)).findFirst().orElse(null);
+    }
+
+    private static User user(Long userId, Long deptId, Long postId) {
+        User user = new User();
+        user.setUserId(userId);
+        user.setUsername("user" + userId);
+        user.setRealName("用户" + userId);
+        user.setDeptId(deptId);
+        user.setPostId(postId);
+        user.setStatus(1);
+        return user;
+    }
+
+    private static BatchCreateApplicationDto dto(BatchCreateApplicationDto.Item... items) {
+        BatchCreateApplicationDto dto = new BatchCreateApplicationDto();
+        dto.setItems(Arrays.asList(items));
+        return dto;
+    }
+
+    private static BatchCreateApplicationDto.Item leave(Long applicantId, Long approverId, String days) {
+        CreateLeaveDto leave = new CreateLeaveDto();
+        leave.setLeaveType(1);
+        leave.setStartTime(LocalDateTime.of(2026, 1, 5, 9, 0));
+        leave.setEndTime(LocalDateTime.of(2026, 1, 6, 18, 0));
+        leave.setDays(new BigDecimal(days));
+        leave.setReason("家中有事");
+        leave.setApproverId(approverId);
+        BatchCreateApplicationDto.Item item = new BatchCreateApplicationDto.Item();
+        item.setApplicantId(applicantId);
+        item.setAppType("leave");
+        item.setLeave(leave);
+        return item;
+    }
+
+    private static BatchCreateApplicationDto.Item reimburse(Long applicantId, Long approverId, String amount) {
+        CreateReimburseDto reimburse = new CreateReimburseDto();
+        reimburse.setExpenseType(1);
+        reimburse.setAmount(new BigDecimal(amount));
+        reimburse.setReason("出差交通费");
+        reimburse.setApproverId(approverId);
+        BatchCreateApplicationDto.Item item = new BatchCreateApplicationDto.Item();
+        item.setApplicantId(applicantId);
+        item.setAppType("reimburse");
+        item.setReimburse(reimburse);
+        return item;
+    }
+}
@@ -0,0 +1,171 @@
+package com.approval.module.system.service.impl;
+
+import com.approval.module.system.mapper.SequenceMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 序列号段分配测试（号段存储用内存表模拟 sys_sequence）
+ */
+class SequenceServiceImplTest {
+
+    private static final int STEP = 5;
+
+    private final Map<String, Long> table = new ConcurrentHashMap<>();
+
+    private SequenceServiceImpl sequenceService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        table.clear();
+        SequenceMapper sequenceMapper = mock(SequenceMapper.class);
+        when(sequenceMapper.selectMaxValue(anyString()))
+                .thenAnswer(invocation -> table.get(invocation.<String>getArgument(0)));
+        when(sequenceMapper.insertIgnore(anyString(), anyLong()))
+                .thenAnswer(invocation -> table.putIfAbsent(invocation.getArgument(0), invocation.getArgument(1)) == null ? 1 : 0);
+        when(sequenceMapper.increase(anyString(), anyInt()))
+                .thenAnswer(invocation -> {
+                    table.merge(invocation.getArgument(0), (long) invocation.<Integer>getArgument(1), Long::sum);
+                    return 1;
+                });
+
+        sequenceService = new SequenceServiceImpl(sequenceMapper, mock(PlatformTransactionManager.class),
+                mock(ObjectProvider.class), "db", STEP);
+    }
+
+    @Test
+    @DisplayName("首个号段从种子值之后开始")
+    void firstSegmentStartsAfterSeed() {
+        assertThat(sequenceService.nextValue("AP", "20260101", () -> 100L)).isEqualTo(101L);
+        assertThat(table).containsEntry("AP20260101", 105L);
+    }
+
+    @Test
+    @DisplayName("号段内批量分配连续的值，与单个分配共用游标")
+    void nextValuesWithinSegment() {
+        assertThat(sequenceService.nextValues("AP", "20260101", 3, () -> 0L)).containsExactly(1, 2, 3);
+        assertThat(sequenceService.nextValue("AP", "20260101", () -> 0L)).isEqualTo(4L);
+        assertThat(table).containsEntry("AP20260101", 5L);
+    }
+
+    @Test
+    @DisplayName("跨号段时先用完当前号段，再从新号段继续")
+    void nextValuesCrossesSegmentBoundary() {
+        sequenceService.nextValues("AP", "20260101", 3, () -> 0L);
+
+        assertThat(sequenceService.nextValues("AP", "20260101", 4, () -> 0L)).containsExactly(4, 5, 6, 7);
+        assertThat(sequenceService.nextValue("AP", "20260101", () -> 0L)).isEqualTo(8L);
+        assertThat(table).containsEntry("AP20260101", 10L);
+    }
+
+    @Test
+    @DisplayName("一次分配超过多个号段长度时连续续租，值唯一且递增")
+    void nextValuesSpanningSeveralSegments() {
+        long[] values = sequenceService.nextValues("AP", "20260101", 12, () -> 0L);
+
+        assertThat(values).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12);
+        assertThat(table).containsEntry("AP20260101", 15L);
+        assertThat(sequenceService.nextValues("AP", "20260101", 3, () -> 0L)).containsExactly(13, 14, 15);
+    }
+
+    @Test
+    @DisplayName("号段恰好用完时下一次分配续租新号段")
+    void nextValuesExhaustingSegmentExactly() {
+        assertThat(sequenceService.nextValues("AP", "20260101", STEP, () -> 0L)).containsExactly(1, 2, 3, 4, 5);
+        assertThat(table).containsEntry("AP20260101", 5L);
+
+        assertThat(sequenceService.nextValues("AP", "20260101", 1, () -> 0L)).containsExactly(6);
+        assertThat(table).containsEntry("AP20260101", 10L);
+    }
+
+    @Test
+    @DisplayName("周期变化时按新周期的种子重新开始")
+    void nextValuesRestartsOnPeriodChange() {
+        sequenceService.nextValues("AP", "20260101", 2, () -> 0L);
+
+        long[] values = sequenceService.nextValues("AP", "20260102", 2, () -> 40L);
+        assertThat(values).containsExactly(41, 42);
+        assertThat(Arrays.stream(values).distinct().count()).isEqualTo(2);
+        assertThat(table).containsEntry("AP20260101", 5L).containsEntry("AP20260102", 45L);
+    }
+
+    @Test
+    @DisplayName("并发取号的值互不重复")
+    void concurrentAllocationsAreUnique() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> LongStream.range(0, 50)
+                        .map(n -> sequenceService.nextValue("AP", "20260101", () -> 0L))
+                        .toArray()));
+            }
+            List<Long> values = new ArrayList<>();
+            for (Future<long[]> future : futures) {
+                Arrays.stream(future.get(10, TimeUnit.SECONDS)).forEach(values::add);
+            }
+
+            assertThat(values).hasSize(400).doesNotHaveDuplicates();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("不同序列的续租互不阻塞")
+    void leaseOfOneNameDoesNotBlockAnother() throws Exception {
+        CountDownLatch seeding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // AP 的续租卡在取种子值上，期间 RB 仍可续租
+            Future<Long> blocked = executor.submit(() -> sequenceService.nextValue("AP", "20260101", () -> {
+                seeding.countDown();
+                awaitQuietly(release);
+                return 0L;
+            }));
+            assertThat(seeding.await(5, TimeUnit.SECONDS)).isTrue();
+
+            Future<Long> other = executor.submit(() -> sequenceService.nextValue("RB", "20260101", () -> 0L));
+            assertThat(other.get(5, TimeUnit.SECONDS)).isEqualTo(1L);
+
+            release.countDown();
+            assertThat(blocked.get(5, TimeUnit.SECONDS)).isEqualTo(1L);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
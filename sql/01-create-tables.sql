@@ -102,6 +102,32 @@ CREATE TABLE sys_post_permission (
     PRIMARY KEY (post_id, permission_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='岗位权限关联表';
 
+-- 2.8 序列号段表
+CREATE TABLE sys_sequence (
+    seq_key VARCHAR(64) PRIMARY KEY COMMENT '序列键（名称+周期，如 AP20260114）',
+    max_value BIGINT NOT NULL DEFAULT 0 COMMENT '已分配出去的最大值',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='序列号段表';
+
+-- 2.9 部门闭包表（部门树的全部祖先-后代关系，用于按子树汇总）
+CREATE TABLE sys_dept_closure (
+    ancestor_id BIGINT NOT NULL COMMENT '祖先部门ID',
+    descendant_id BIGINT NOT NULL COMMENT '后代部门ID',
+    depth INT NOT NULL COMMENT '层级距离（0表示自身）',
+    PRIMARY KEY (ancestor_id, descendant_id),
+    INDEX idx_descendant (descendant_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='部门闭包表';
+
+-- 2.10 报表快照表（已结束月份的报表结果，不再变化）
+CREATE TABLE sys_report_snapshot (
+    report_type VARCHAR(32) NOT NULL COMMENT '报表类型',
+    stat_month CHAR(7) NOT NULL COMMENT '统计月份',
+    dept_id BIGINT NOT NULL DEFAULT 0 COMMENT '部门ID（汇总报表为0）',
+    content LONGTEXT NOT NULL COMMENT '报表内容（JSON）',
+    create_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '生成时间',
+    PRIMARY KEY (report_type, stat_month, dept_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='报表快照表';
+
 -- =============================================
 -- 审批业务表
 -- =============================================
@@ -117,11 +143,19 @@ CREATE TABLE bpm_application (
     status TINYINT DEFAULT 1 COMMENT '状态：0=草稿 1=待审批 2=审批中 3=已通过 4=已拒绝 5=已撤回',
     current_node VARCHAR(100) COMMENT '当前审批节点',
     submit_time DATETIME COMMENT '提交时间',
+    proxy_submitter_id BIGINT COMMENT '代提交人ID（本人提交为空）',
     finish_time DATETIME COMMENT '完成时间',
+    last_approver_id BIGINT COMMENT '最近审批人ID',
+    last_approver_name VARCHAR(50) COMMENT '最近审批人姓名',
+    last_action TINYINT COMMENT '最近审批动作：1=同意 2=拒绝',
+    last_comment VARCHAR(500) COMMENT '最近审批意见',
+    last_decision_time DATETIME COMMENT '最近审批时间',
     del_flag TINYINT DEFAULT 0 COMMENT '删除标志：0=正常 1=删除',
     create_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
-    INDEX idx_applicant_id (applicant_id),
+    INDEX idx_applicant_submit (applicant_id, submit_time),
+    INDEX idx_dept_submit (dept_id, submit_time),
+    INDEX idx_last_approver_decision (last_approver_id, last_decision_time),
     INDEX idx_status (status),
     INDEX idx_app_type (app_type),
     INDEX idx_submit_time (submit_time)
@@ -168,7 +202,9 @@ CREATE TABLE bpm_task (
     finish_time DATETIME COMMENT '完成时间',
     INDEX idx_app_id (app_id),
     INDEX idx_assignee_id (assignee_id),
-    INDEX idx_status (status)
+    INDEX idx_status (status),
+    INDEX idx_assignee_status_create (assignee_id, status, create_time),
+    INDEX idx_assignee_status_finish (assignee_id, status, finish_time)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='审批任务表';
 
 -- 3.5 审批历史表
@@ -184,9 +220,34 @@ CREATE TABLE bpm_history (
     approve_time DATETIME COMMENT '审批时间',
     next_node VARCHAR(100) COMMENT '下一节点',
     create_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
-    INDEX idx_app_id (app_id)
+    INDEX idx_app_id (app_id),
+    INDEX idx_task_create (task_id, create_time)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='审批历史表';
 
+-- 3.6 审批人按天汇总表
+CREATE TABLE bpm_approver_daily_stat (
+    approver_id BIGINT NOT NULL COMMENT '审批人ID',
+    stat_date DATE NOT NULL COMMENT '统计日期',
+    app_type VARCHAR(20) NOT NULL COMMENT '申请类型：leave=请假 reimburse=报销',
+    action TINYINT NOT NULL COMMENT '审批动作：1=同意 2=拒绝',
+    approval_count INT NOT NULL DEFAULT 0 COMMENT '审批数量',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (approver_id, stat_date, app_type, action)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='审批人按天汇总表';
+
+-- 3.7 申请人月度汇总表（提交、审批时增量维护，当月报表直接读取）
+CREATE TABLE bpm_monthly_applicant_stat (
+    stat_month CHAR(7) NOT NULL COMMENT '统计月份（按提交时间，如 2026-01）',
+    dept_id BIGINT NOT NULL DEFAULT 0 COMMENT '申请部门ID（0表示未分配）',
+    applicant_id BIGINT NOT NULL COMMENT '申请人ID',
+    app_type VARCHAR(20) NOT NULL COMMENT '申请类型：leave=请假 reimburse=报销',
+    app_count INT NOT NULL DEFAULT 0 COMMENT '申请数量',
+    approved_count INT NOT NULL DEFAULT 0 COMMENT '已通过数量',
+    total_value DECIMAL(14,2) NOT NULL DEFAULT 0 COMMENT '合计值（请假天数/报销金额）',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (stat_month, dept_id, applicant_id, app_type)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='申请人月度汇总表';
+
 -- =============================================
 -- 文件管理表
 -- =============================================
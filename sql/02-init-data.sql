@@ -22,7 +22,8 @@ INSERT INTO sys_role (role_id, role_name, role_key, role_sort, remark) VALUES
 INSERT INTO sys_permission (permission_id, permission_code, permission_name, description) VALUES
 (1, 'SYSTEM_ADMIN', '系统管理权限', '可访问系统管理后台'),
 (2, 'APPROVAL_REVIEW', '审批处理权限', '可处理审批任务'),
-(3, 'APPLICATION_SUBMIT', '申请提交权限', '可发起业务申请');
+(3, 'APPLICATION_SUBMIT', '申请提交权限', '可发起业务申请'),
+(4, 'APPLICATION_PROXY_SUBMIT', '代提交申请权限', '可为本部门及下级部门的员工批量提交申请');
 
 -- =============================================
 -- 2. 初始化部门数据
@@ -36,6 +37,17 @@ INSERT INTO sys_dept (dept_id, parent_id, dept_name, leader, order_num) VALUES
 (5, 2, '前端组', '前端组长', 1),
 (6, 2, '后端组', '后端组长', 2);
 
+-- 部门闭包关系（由部门树生成）
+INSERT INTO sys_dept_closure (ancestor_id, descendant_id, depth)
+WITH RECURSIVE tree AS (
+    SELECT dept_id AS ancestor_id, dept_id AS descendant_id, 0 AS depth FROM sys_dept WHERE del_flag = 0
+    UNION ALL
+    SELECT t.ancestor_id, d.dept_id, t.depth + 1
+    FROM tree t JOIN sys_dept d ON d.parent_id = t.descendant_id AND d.del_flag = 0
+    WHERE t.depth < 64
+)
+SELECT ancestor_id, descendant_id, depth FROM tree;
+
 -- =============================================
 -- 3. 初始化岗位数据
 -- =============================================
@@ -48,8 +60,8 @@ INSERT INTO sys_post (post_id, post_code, post_name, post_sort) VALUES
 
 -- 岗位权限关联
 INSERT INTO sys_post_permission (post_id, permission_id) VALUES
-(1, 1), (1, 2), (1, 3),
-(2, 2), (2, 3),
+(1, 1), (1, 2), (1, 3), (1, 4),
+(2, 2), (2, 3), (2, 4),
 (3, 2), (3, 3),
 (4, 3);
 
@@ -105,10 +117,15 @@ INSERT INTO sys_user_role (user_id, role_id) VALUES
 -- 生成申请单号函数（简化版，实际应在后端生成）
 -- 申请单号格式：AP + yyyyMMdd + 6位流水号
 
-INSERT INTO bpm_application (app_id, app_no, app_type, title, applicant_id, dept_id, status, submit_time) VALUES
-(1, 'AP20260114000001', 'leave', '请假申请-春节回家', 5, 5, 3, '2026-01-10 10:00:00'),
-(2, 'AP20260114000002', 'reimburse', '报销申请-出差费用', 6, 6, 1, '2026-01-12 14:30:00'),
-(3, 'AP20260114000003', 'leave', '请假申请-病假', 7, 2, 2, '2026-01-13 09:15:00');
+-- 最近审批信息（last_*）与审批历史中最后一条审批记录保持一致
+INSERT INTO bpm_application (app_id, app_no, app_type, title, applicant_id, dept_id, status, submit_time,
+    last_approver_id, last_approver_name, last_action, last_comment, last_decision_time) VALUES
+(1, 'AP20260114000001', 'leave', '请假申请-春节回家', 5, 5, 3, '2026-01-10 10:00:00',
+    2, '李经理', 1, '同意请假，注意安全', '2026-01-10 15:30:00'),
+(2, 'AP20260114000002', 'reimburse', '报销申请-出差费用', 6, 6, 1, '2026-01-12 14:30:00',
+    NULL, NULL, NULL, NULL, NULL),
+(3, 'AP20260114000003', 'leave', '请假申请-病假', 7, 2, 2, '2026-01-13 09:15:00',
+    NULL, NULL, NULL, NULL, NULL);
 
 -- 请假申请详情
 INSERT INTO bpm_leave_application (app_id, leave_type, start_time, end_time, days, reason) VALUES
@@ -133,6 +150,12 @@ INSERT INTO bpm_task (app_id, node_name, assignee_id, assignee_name, status) VAL
 (2, '部门经理审批', 2, '李经理', 0),  -- 待审批
 (3, '部门经理审批', 2, '李经理', 0);  -- 待审批
 
+-- 申请人月度汇总（与上面的测试申请一致）
+INSERT INTO bpm_monthly_applicant_stat (stat_month, dept_id, applicant_id, app_type, app_count, approved_count, total_value) VALUES
+('2026-01', 5, 5, 'leave', 1, 1, 5.0),
+('2026-01', 6, 6, 'reimburse', 1, 0, 1580.50),
+('2026-01', 2, 7, 'leave', 1, 0, 2.0);
+
 -- =============================================
 -- 脚本执行完成提示
 -- =============================================
@@ -0,0 +1,146 @@
+-- =============================================
+-- 审批系统存量库升级脚本
+-- 说明：已按旧版 01-create-tables.sql 建库的环境执行本脚本，
+--       新建库直接执行 01、02 即可，无需执行本脚本。
+-- =============================================
+
+USE approval_system;
+
+-- 序列号段表（申请单号按天分段分配）
+CREATE TABLE IF NOT EXISTS sys_sequence (
+    seq_key VARCHAR(64) PRIMARY KEY COMMENT '序列键（名称+周期，如 AP20260114）',
+    max_value BIGINT NOT NULL DEFAULT 0 COMMENT '已分配出去的最大值',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='序列号段表';
+
+-- 待办任务列表：按审批人+状态过滤、按创建时间倒序
+ALTER TABLE bpm_task ADD INDEX idx_assignee_status_create (assignee_id, status, create_time);
+
+-- 已办任务列表：按审批人+状态过滤、按完成时间倒序
+ALTER TABLE bpm_task ADD INDEX idx_assignee_status_finish (assignee_id, status, finish_time);
+
+-- 按任务查询最近审批历史
+ALTER TABLE bpm_history ADD INDEX idx_task_create (task_id, create_time);
+
+-- 我的申请列表：按申请人过滤、按提交时间倒序（覆盖原 idx_applicant_id）
+ALTER TABLE bpm_application ADD INDEX idx_applicant_submit (applicant_id, submit_time);
+ALTER TABLE bpm_application DROP INDEX idx_applicant_id;
+
+-- 申请主表冗余最近审批信息（由审批操作同步维护）
+ALTER TABLE bpm_application
+    ADD COLUMN last_approver_id BIGINT COMMENT '最近审批人ID' AFTER finish_time,
+    ADD COLUMN last_approver_name VARCHAR(50) COMMENT '最近审批人姓名' AFTER last_approver_id,
+    ADD COLUMN last_action TINYINT COMMENT '最近审批动作：1=同意 2=拒绝' AFTER last_approver_name,
+    ADD COLUMN last_comment VARCHAR(500) COMMENT '最近审批意见' AFTER last_action,
+    ADD COLUMN last_decision_time DATETIME COMMENT '最近审批时间' AFTER last_comment,
+    ADD INDEX idx_last_approver_decision (last_approver_id, last_decision_time);
+
+-- 存量数据回填（数据量大时可改为开启 approval.backfill.last-decision 由应用分批回填）
+UPDATE bpm_application a
+JOIN (
+    SELECT app_id, approver_id, approver_name, action, comment, approve_time,
+           ROW_NUMBER() OVER (PARTITION BY app_id ORDER BY approve_time DESC, history_id DESC) AS rn
+    FROM bpm_history
+) h ON h.app_id = a.app_id AND h.rn = 1
+SET a.last_approver_id = h.approver_id,
+    a.last_approver_name = h.approver_name,
+    a.last_action = h.action,
+    a.last_comment = h.comment,
+    a.last_decision_time = h.approve_time
+WHERE a.last_decision_time IS NULL;
+
+-- 审批人按天汇总表（审批时增量维护，审批人仪表盘直接读取）
+CREATE TABLE IF NOT EXISTS bpm_approver_daily_stat (
+    approver_id BIGINT NOT NULL COMMENT '审批人ID',
+    stat_date DATE NOT NULL COMMENT '统计日期',
+    app_type VARCHAR(20) NOT NULL COMMENT '申请类型：leave=请假 reimburse=报销',
+    action TINYINT NOT NULL COMMENT '审批动作：1=同意 2=拒绝',
+    approval_count INT NOT NULL DEFAULT 0 COMMENT '审批数量',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (approver_id, stat_date, app_type, action)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='审批人按天汇总表';
+
+-- 存量数据汇总（也可开启 approval.backfill.approver-daily-stat 由应用重建）
+DELETE FROM bpm_approver_daily_stat;
+INSERT INTO bpm_approver_daily_stat (approver_id, stat_date, app_type, action, approval_count)
+SELECT t.assignee_id, DATE(COALESCE(h.approve_time, t.finish_time)), COALESCE(a.app_type, 'other'),
+       COALESCE(h.action, 0), COUNT(*)
+FROM bpm_task t
+LEFT JOIN (
+    SELECT task_id, action, approve_time,
+           ROW_NUMBER() OVER (PARTITION BY task_id ORDER BY create_time DESC, history_id DESC) AS rn
+    FROM bpm_history WHERE task_id IS NOT NULL
+) h ON h.task_id = t.task_id AND h.rn = 1
+LEFT JOIN bpm_application a ON a.app_id = t.app_id
+WHERE t.status = 1 AND COALESCE(h.approve_time, t.finish_time) IS NOT NULL
+GROUP BY t.assignee_id, DATE(COALESCE(h.approve_time, t.finish_time)),
+         COALESCE(a.app_type, 'other'), COALESCE(h.action, 0);
+
+-- 部门闭包表（部门增删改时同步维护，报表与列表按子树汇总）
+CREATE TABLE IF NOT EXISTS sys_dept_closure (
+    ancestor_id BIGINT NOT NULL COMMENT '祖先部门ID',
+    descendant_id BIGINT NOT NULL COMMENT '后代部门ID',
+    depth INT NOT NULL COMMENT '层级距离（0表示自身）',
+    PRIMARY KEY (ancestor_id, descendant_id),
+    INDEX idx_descendant (descendant_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='部门闭包表';
+
+-- 由现有部门树生成（也可开启 approval.backfill.dept-closure 由应用重建）
+DELETE FROM sys_dept_closure;
+INSERT INTO sys_dept_closure (ancestor_id, descendant_id, depth)
+WITH RECURSIVE tree AS (
+    SELECT dept_id AS ancestor_id, dept_id AS descendant_id, 0 AS depth FROM sys_dept WHERE del_flag = 0
+    UNION ALL
+    SELECT t.ancestor_id, d.dept_id, t.depth + 1
+    FROM tree t JOIN sys_dept d ON d.parent_id = t.descendant_id AND d.del_flag = 0
+    WHERE t.depth < 64
+)
+SELECT ancestor_id, descendant_id, depth FROM tree;
+
+-- 按部门（子树）筛选申请、按提交时间范围统计
+ALTER TABLE bpm_application ADD INDEX idx_dept_submit (dept_id, submit_time);
+
+-- 申请人月度汇总表与报表快照表
+CREATE TABLE IF NOT EXISTS bpm_monthly_applicant_stat (
+    stat_month CHAR(7) NOT NULL COMMENT '统计月份（按提交时间，如 2026-01）',
+    dept_id BIGINT NOT NULL DEFAULT 0 COMMENT '申请部门ID（0表示未分配）',
+    applicant_id BIGINT NOT NULL COMMENT '申请人ID',
+    app_type VARCHAR(20) NOT NULL COMMENT '申请类型：leave=请假 reimburse=报销',
+    app_count INT NOT NULL DEFAULT 0 COMMENT '申请数量',
+    approved_count INT NOT NULL DEFAULT 0 COMMENT '已通过数量',
+    total_value DECIMAL(14,2) NOT NULL DEFAULT 0 COMMENT '合计值（请假天数/报销金额）',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (stat_month, dept_id, applicant_id, app_type)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='申请人月度汇总表';
+
+CREATE TABLE IF NOT EXISTS sys_report_snapshot (
+    report_type VARCHAR(32) NOT NULL COMMENT '报表类型',
+    stat_month CHAR(7) NOT NULL COMMENT '统计月份',
+    dept_id BIGINT NOT NULL DEFAULT 0 COMMENT '部门ID（汇总报表为0）',
+    content LONGTEXT NOT NULL COMMENT '报表内容（JSON）',
+    create_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '生成时间',
+    PRIMARY KEY (report_type, stat_month, dept_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='报表快照表';
+
+-- 存量数据汇总（之后可通过 POST /admin/reports/rebuild 按月重建）
+DELETE FROM bpm_monthly_applicant_stat;
+INSERT INTO bpm_monthly_applicant_stat (stat_month, dept_id, applicant_id, app_type, app_count, approved_count, total_value)
+SELECT DATE_FORMAT(a.submit_time, '%Y-%m'), COALESCE(a.dept_id, 0), a.applicant_id, a.app_type,
+       COUNT(*), SUM(a.status = 3), COALESCE(SUM(COALESCE(l.days, r.amount)), 0)
+FROM bpm_application a
+LEFT JOIN bpm_leave_application l ON l.app_id = a.app_id
+LEFT JOIN bpm_reimburse_application r ON r.app_id = a.app_id
+WHERE a.del_flag = 0 AND a.submit_time IS NOT NULL
+GROUP BY DATE_FORMAT(a.submit_time, '%Y-%m'), COALESCE(a.dept_id, 0), a.applicant_id, a.app_type;
+
+-- 代提交申请权限（批量提交接口 POST /application/batch，仅限本部门及下级部门人员），默认授予总经理、部门经理岗位
+INSERT INTO sys_permission (permission_code, permission_name, description)
+SELECT 'APPLICATION_PROXY_SUBMIT', '代提交申请权限', '可为本部门及下级部门的员工批量提交申请' FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM sys_permission WHERE permission_code = 'APPLICATION_PROXY_SUBMIT');
+INSERT IGNORE INTO sys_post_permission (post_id, permission_id)
+SELECT p.post_id, m.permission_id FROM sys_post p
+JOIN sys_permission m ON m.permission_code = 'APPLICATION_PROXY_SUBMIT'
+WHERE p.post_code IN ('CEO', 'MANAGER');
+
+-- 代提交人（批量代提交时记录实际操作人）
+ALTER TABLE bpm_application ADD COLUMN proxy_submitter_id BIGINT COMMENT '代提交人ID（本人提交为空）' AFTER submit_time;